@@ -1,14 +1,85 @@
 package com.FoRS.BrainSwap_backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Value("${zoom.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${zoom.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${zoom.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${zoom.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // How long a request waits for a free pooled connection before failing
+    @Value("${zoom.http.pool-timeout-ms:2000}")
+    private long poolTimeoutMs;
+
+    @Value("${zoom.http.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${zoom.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Bean
+    public PoolingHttpClientConnectionManager zoomConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+        // httpcomponents.httpclient.pool.* gauges: leased, available and pending connections
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "zoom").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient zoomHttpClient(PoolingHttpClientConnectionManager zoomConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        return HttpClients.custom()
+                .setConnectionManager(zoomConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                // Honour the server's Keep-Alive header but never hold a connection longer than configured
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(advertised) && advertised.toMilliseconds() < maxKeepAlive.toMilliseconds()
+                            ? advertised
+                            : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient zoomHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(zoomHttpClient));
     }
-}
\ No newline at end of file
+}
@@ -42,7 +42,7 @@ public class AuthController {
         );
         GetUserDTO getDTO = service.save(dto);
         AppUser user = service.findByUsernameEntity(getDTO.username()).orElseThrow();//getUserDTOConverter.createFromDto(getDTO);//todo doesnt work, change to find the added entity
-        String token = jwt.generateToken(user.getId(), user.getUsername(), user.getRole().name());
+        String token = jwt.generateToken(user.getId(), user.getUsername(), user.getRole().name(), user.getTokenVersion());
         return new AuthResponseDTO(token);
     }
 
@@ -50,6 +50,6 @@ public class AuthController {
     public AuthResponseDTO login(@RequestBody LoginDTO req) {
         am.authenticate(new UsernamePasswordAuthenticationToken(req.username(), req.password()));
         AppUser u = service.findByUsernameEntity(req.username()).orElseThrow();
-        return new AuthResponseDTO(jwt.generateToken(u.getId(), u.getUsername(), u.getRole().name()));
+        return new AuthResponseDTO(jwt.generateToken(u.getId(), u.getUsername(), u.getRole().name(), u.getTokenVersion()));
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.FoRS.BrainSwap_backend.controller;
 
 import com.FoRS.BrainSwap_backend.service.CallService;
+import com.FoRS.BrainSwap_backend.service.OpenCallService;
+import com.FoRS.BrainSwap_backend.utils.constants.ViewMode;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.CancelScheduleDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.CreateCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.GetCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.ScheduleCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.UpdateCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.WaitlistPositionDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +24,7 @@ import java.util.List;
 @RequestMapping("/calls")
 public class CallController {
     private final CallService callService;
+    private final OpenCallService openCallService;
 
     @PostMapping
     public GetCallDTO createCall(@RequestBody CreateCallDTO call) {
@@ -24,12 +32,29 @@ public class CallController {
     }
 
     @GetMapping
-    public List<GetCallDTO> getAllCalls() {
+    public List<?> getAllCalls(@RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return callService.findAllSummaries();
+        }
         return callService.findAll();
     }
 
+    // Bookable calls in start order, from now and 30 days ahead unless a window is given
+    @GetMapping("/open")
+    public List<OpenCallDTO> getOpenCalls(@RequestParam(required = false) Long skillId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(required = false) Integer size) {
+        return openCallService.findOpenCalls(skillId, from, to, size);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<GetCallDTO> getCall(@PathVariable Long id) {
+    public ResponseEntity<?> getCall(@PathVariable Long id, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return callService.findSummaryById(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return callService.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -51,7 +76,7 @@ public class CallController {
     }
 
     @PostMapping("/schedule")
-    public GetCallDTO scheduleCall(@RequestBody ScheduleCallDTO dto) {
+    public CallSummaryDTO scheduleCall(@RequestBody ScheduleCallDTO dto) {
         return callService.scheduleCall(dto);
     }
 
@@ -60,6 +85,17 @@ public class CallController {
         return ResponseEntity.ok(callService.cancelSchedule(dto));
     }
 
+    @PostMapping("/waitlist")
+    public WaitlistPositionDTO joinWaitlist(@RequestBody ScheduleCallDTO dto) {
+        return callService.joinWaitlist(dto);
+    }
+
+    @PostMapping("/waitlist/cancel")
+    public ResponseEntity<?> leaveWaitlist(@RequestBody CancelScheduleDTO dto) {
+        callService.leaveWaitlist(dto);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/{callId}/complete")
     public ResponseEntity<?> completeCall(@PathVariable Long callId, @RequestBody List<Long> joinedUserIds) {
         callService.completeCall(callId, joinedUserIds);
@@ -73,7 +109,10 @@ public class CallController {
     }
 
     @GetMapping("/user/{id}")
-    public List<GetCallDTO> getAllByParticipantId(@PathVariable Long id) {
+    public List<?> getAllByParticipantId(@PathVariable Long id, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return callService.getSummariesByParticipantId(id);
+        }
         return callService.getAllByParticipantId(id);
     }
 }
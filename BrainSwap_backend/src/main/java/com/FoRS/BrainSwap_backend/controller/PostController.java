@@ -1,9 +1,18 @@
 package com.FoRS.BrainSwap_backend.controller;
 
 import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.service.CallService;
 import com.FoRS.BrainSwap_backend.service.PostService;
+import com.FoRS.BrainSwap_backend.service.SearchService;
+import com.FoRS.BrainSwap_backend.utils.constants.LearningType;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.constants.ViewMode;
+import com.FoRS.BrainSwap_backend.utils.dto.CursorPageDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallProvisioningDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.CreatePostDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.GetPostDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostFeedFilterDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostSearchResultDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.UpdatePostDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +25,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PostController {
     private final PostService postService;
+    private final CallService callService;
+    private final SearchService searchService;
 
     @PostMapping
     public GetPostDTO createPost(@RequestBody CreatePostDTO post) {
@@ -23,17 +34,48 @@ public class PostController {
     }
 
     @GetMapping
-    public List<GetPostDTO> getAllPosts() {
-        return postService.findAll();
+    public CursorPageDTO<?> getAllPosts(@RequestParam(defaultValue = "full") ViewMode view,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) Long skillId,
+                                        @RequestParam(required = false) PostType type,
+                                        @RequestParam(required = false) LearningType learningType,
+                                        @RequestParam(required = false) Boolean isActive,
+                                        @RequestParam(required = false) Integer minPrice,
+                                        @RequestParam(required = false) Integer maxPrice) {
+        PostFeedFilterDTO filter = new PostFeedFilterDTO(skillId, type, learningType, isActive, minPrice, maxPrice);
+        if (view == ViewMode.SUMMARY) {
+            return postService.getFeedSummary(filter, cursor, size);
+        }
+        return postService.getFeed(filter, cursor, size);
+    }
+
+    // Best matches first, tolerant of typos in the title
+    @GetMapping("/search")
+    public List<PostSearchResultDTO> searchPosts(@RequestParam String q,
+                                                 @RequestParam(required = false) Integer page,
+                                                 @RequestParam(required = false) Integer size) {
+        return searchService.searchPosts(q, page, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<GetPostDTO> getPost(@PathVariable Long id) {
+    public ResponseEntity<?> getPost(@PathVariable Long id, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return postService.findSummaryById(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return postService.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Lets the client follow the Zoom meetings being created for a post's calls
+    @GetMapping("/{id}/provisioning")
+    public List<CallProvisioningDTO> getProvisioning(@PathVariable Long id) {
+        return callService.getProvisioningByPostId(id);
+    }
+
     @PutMapping
     public GetPostDTO updatePost(@RequestBody UpdatePostDTO post) {
         return postService.update(post);
@@ -51,12 +93,18 @@ public class PostController {
     }
 
     @GetMapping("/user/username/{username}")
-    public List<GetPostDTO> getPostsByUser(@PathVariable String username) {
+    public List<?> getPostsByUser(@PathVariable String username, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return postService.getSummariesByOwner(username);
+        }
         return postService.getByOwner(username);
     }
 
     @GetMapping("/user/id/{id}")
-    public List<GetPostDTO> getPostsById(@PathVariable Long id) {
+    public List<?> getPostsById(@PathVariable Long id, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return postService.getSummariesByOwnerId(id);
+        }
         return postService.getByOwnerId(id);
     }
 }
\ No newline at end of file
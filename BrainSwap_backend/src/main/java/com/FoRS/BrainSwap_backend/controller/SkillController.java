@@ -1,9 +1,11 @@
 package com.FoRS.BrainSwap_backend.controller;
 
 import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.service.SearchService;
 import com.FoRS.BrainSwap_backend.service.SkillService;
 import com.FoRS.BrainSwap_backend.utils.dto.skill.CreateSkillDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.skill.GetSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.SkillSearchResultDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.skill.UpdateSkillAdminDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SkillController {
     private final SkillService skillService;
+    private final SearchService searchService;
 
     @PostMapping
     public GetSkillDTO createSkill(@RequestBody CreateSkillDTO skill) {
@@ -28,6 +31,19 @@ public class SkillController {
         return skillService.findAll();
     }
 
+    // Public so the registration form can suggest skills as the user types
+    @GetMapping("/public/autocomplete")
+    public List<SkillSearchResultDTO> autocompleteSkills(@RequestParam String prefix,
+                                                         @RequestParam(required = false) Integer size) {
+        return searchService.autocompleteSkills(prefix, size);
+    }
+
+    @GetMapping("/search")
+    public List<SkillSearchResultDTO> searchSkills(@RequestParam String q,
+                                                   @RequestParam(required = false) Integer size) {
+        return searchService.searchSkills(q, size);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GetSkillDTO> getSkill(@PathVariable Long id) {
         return skillService.findById(id)
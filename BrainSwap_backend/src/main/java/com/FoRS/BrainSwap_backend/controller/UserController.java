@@ -4,6 +4,8 @@ import com.FoRS.BrainSwap_backend.utils.dto.AddBalanceDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.CreateUserDTO;
 import com.FoRS.BrainSwap_backend.domain.AppUser;
 import com.FoRS.BrainSwap_backend.service.UserService;
+import com.FoRS.BrainSwap_backend.utils.constants.ViewMode;
+import com.FoRS.BrainSwap_backend.utils.dto.user.BalanceDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.GetUserDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.UpdateUserDTO;
 import lombok.RequiredArgsConstructor;
@@ -24,12 +26,20 @@ public class UserController {
     }
 
     @GetMapping
-    public List<GetUserDTO> getAllUsers() {
+    public List<?> getAllUsers(@RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return userService.findAllSummaries();
+        }
         return userService.findAll();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<GetUserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<?> getUserById(@PathVariable Long id, @RequestParam(defaultValue = "full") ViewMode view) {
+        if (view == ViewMode.SUMMARY) {
+            return userService.findSummaryById(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return userService.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -45,8 +55,15 @@ public class UserController {
         userService.deleteById(id);
     }
 
+    @GetMapping("/{id}/balance")
+    public BalanceDTO getBalance(@PathVariable Long id) {
+        return userService.getBalance(id);
+    }
+
+    // Clients retrying a top-up send the same Idempotency-Key so it is only credited once
     @PostMapping("/add-balance")
-    public GetUserDTO addBalance(@RequestBody AddBalanceDTO dto){
-        return userService.addBalance(dto.id(), dto.balance());
+    public BalanceDTO addBalance(@RequestBody AddBalanceDTO dto,
+                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        return userService.addBalance(dto.id(), dto.balance(), idempotencyKey);
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,9 +24,12 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "app_user")
 @EntityListeners(UserEntityListener.class)
+// Scheduled calls and their participants are batch-fetched, only one bag can be joined per select
+@NamedEntityGraph(name = "AppUser.profile", attributeNodes = @NamedAttributeNode("skills"))
 public class AppUser {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -43,9 +47,15 @@ public class AppUser {
     )
     private String password;
 
+    // Snapshot only written by the ledger fold, balance changes go through BalanceService
+    @Column(updatable = false)
     private Long balance;
 
-    @OneToMany
+    @Formula("(COALESCE(balance, 0) + COALESCE((SELECT SUM(l.amount) FROM balance_ledger l " +
+            "WHERE l.user_id = id AND l.snapshot_id IS NULL), 0))")
+    private Long currentBalance;        // snapshot plus ledger entries not folded in yet
+
+    @ManyToMany(mappedBy = "participants")
     private List<Call> scheduledCalls;
 
     @ManyToMany
@@ -56,12 +66,15 @@ public class AppUser {
     )
     private List<Skill> skills;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Call currentCall;
 
     @Enumerated(EnumType.STRING)
     private Role role;              // USER or ADMIN
 
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;   // carried in every JWT, bumping it rejects all tokens issued before
+
     @OneToMany(mappedBy = "owner")
     private List<Post> posts;
 
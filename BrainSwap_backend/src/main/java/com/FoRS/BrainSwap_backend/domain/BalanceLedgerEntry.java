@@ -0,0 +1,51 @@
+package com.FoRS.BrainSwap_backend.domain;
+
+import com.FoRS.BrainSwap_backend.utils.constants.LedgerReason;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "balance_ledger",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_ledger_user_idempotency_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = {
+                @Index(name = "idx_balance_ledger_user_snapshot", columnList = "user_id, snapshot_id"),
+                @Index(name = "idx_balance_ledger_snapshot", columnList = "snapshot_id")
+        }
+)
+public class BalanceLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long amount;                // positive for credits, negative for debits
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LedgerReason reason;
+
+    @Column(name = "call_id")
+    private Long callId;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;      // client supplied for top-ups, a retried request is recorded once
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "snapshot_id")
+    private Long snapshotId;            // null until the entry is folded into app_user.balance
+}
@@ -1,12 +1,14 @@
 package com.FoRS.BrainSwap_backend.domain;
 
 import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
 import com.FoRS.BrainSwap_backend.utils.listener.CallEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,33 +19,50 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @EntityListeners(CallEntityListener.class)
+// Only changed columns are written, so saving a call never overwrites the seat counter kept by CallRepository
+@DynamicUpdate
+@NamedEntityGraph(
+        name = "Call.detail",
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode("participants")
+        }
+)
 public class Call {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "call_seq")
+    @SequenceGenerator(name = "call_seq", sequenceName = "call_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 
     @Column(nullable = false)
     private LocalDateTime scheduledTime;
 
+    @Column(name = "end_time")
+    private LocalDateTime endTime;      // scheduledTime plus the default call duration, kept by CallEntityListener
+
     @Column(nullable = false)
     private Integer maxParticipants;
 
+    @Builder.Default
     @Column(nullable = false)
-    private Integer currentParticipants;
+    private Integer currentParticipants = 0;    // only changed through CallRepository.reserveSeat / releaseSeat
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private AppUser owner;
 
+    // Membership is read and written row by row through CallRepository, never by loading this list
     @ManyToMany
     @JoinTable(
         name = "call_participants",
         joinColumns = @JoinColumn(name = "call_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_call_participants_call_user", columnNames = {"call_id", "user_id"}),
+        indexes = @Index(name = "idx_call_participants_user", columnList = "user_id")
     )
     private List<AppUser> participants;
 
@@ -69,6 +88,14 @@ public class Call {
     @Column(name = "zoom_host_key")
     private String zoomHostKey;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "zoom_status")
+    private ZoomProvisioningStatus zoomStatus;
+
+    @Column(name = "zoom_claimed_at")
+    private LocalDateTime zoomClaimedAt;    // when the current PROVISIONING worker took the call
+
+    @Builder.Default
     @Column(nullable = false)
     private Boolean isActive = true;  // true if the call is active, false if it's been removed
 }
@@ -0,0 +1,36 @@
+package com.FoRS.BrainSwap_backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "call_waitlist",
+        uniqueConstraints = @UniqueConstraint(name = "uk_call_waitlist_call_user", columnNames = {"call_id", "user_id"}),
+        indexes = @Index(name = "idx_call_waitlist_call_queue", columnList = "call_id, id")
+)
+public class CallWaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;                    // queue order within a call
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "call_id", nullable = false)
+    private Call call;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private AppUser user;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.FoRS.BrainSwap_backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduled_job_lease")
+public class JobLease {
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Column(name = "locked_by")
+    private String lockedBy;            // node currently or last holding the lease
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;  // the lease is free for any node once this has passed
+
+    private LocalDateTime lastStartedAt;
+
+    private LocalDateTime lastFinishedAt;
+}
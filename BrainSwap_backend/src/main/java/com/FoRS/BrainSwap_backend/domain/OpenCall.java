@@ -0,0 +1,44 @@
+package com.FoRS.BrainSwap_backend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per call that can still be booked: scheduled, active and not full. Rows are rewritten by
+ * OpenCallRepository.refresh in the same transaction as the change to the call.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(
+        name = "open_call",
+        indexes = {
+                @Index(name = "idx_open_call_skill_time", columnList = "skill_id, scheduled_time"),
+                @Index(name = "idx_open_call_time", columnList = "scheduled_time")
+        }
+)
+public class OpenCall {
+    @Id
+    @Column(name = "call_id")
+    private Long callId;
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    @Column(name = "skill_id", nullable = false)
+    private Long skillId;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    @Column(name = "scheduled_time", nullable = false)
+    private LocalDateTime scheduledTime;
+    @Column(name = "free_seats", nullable = false)
+    private Integer freeSeats;
+    @Column(name = "participant_price", nullable = false)
+    private Integer participantPrice;
+    @Column(name = "is_learn_together", nullable = false)
+    private Boolean isLearnTogether;
+}
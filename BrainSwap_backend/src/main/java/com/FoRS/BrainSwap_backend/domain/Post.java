@@ -18,9 +18,23 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @EntityListeners(PostEntityListener.class)
+@NamedEntityGraphs({
+        // Feed cards: the owner is rendered, calls are batch-fetched per page
+        @NamedEntityGraph(name = "Post.feed", attributeNodes = @NamedAttributeNode("owner")),
+        // Post detail and owner's posts: calls and their owners in the same select
+        @NamedEntityGraph(
+                name = "Post.detail",
+                attributeNodes = {
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "calls", subgraph = "Post.detail.calls")
+                },
+                subgraphs = @NamedSubgraph(name = "Post.detail.calls", attributeNodes = @NamedAttributeNode("owner"))
+        )
+})
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -28,11 +42,11 @@ public class Post {
 
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", referencedColumnName = "id", nullable = false)
     private AppUser owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "skill_id", referencedColumnName = "id", nullable = false)
     @NotNull(message = "Cannot post nothing")
     private Skill skill;
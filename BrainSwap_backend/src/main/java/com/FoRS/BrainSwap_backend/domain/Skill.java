@@ -13,7 +13,8 @@ import jakarta.validation.constraints.NotNull;
 @EntityListeners(SkillEntityListener.class)
 public class Skill {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "skill_seq")
+    @SequenceGenerator(name = "skill_seq", sequenceName = "skill_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Skill cannot be empty")
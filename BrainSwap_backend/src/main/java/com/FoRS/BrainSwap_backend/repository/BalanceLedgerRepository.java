@@ -0,0 +1,100 @@
+package com.FoRS.BrainSwap_backend.repository;
+
+import com.FoRS.BrainSwap_backend.domain.BalanceLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ledger entries are only ever inserted, and later stamped with the snapshot that folded them in.
+ * Reason literals in the native statements are LedgerReason names.
+ */
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+    // Snapshot of user u plus every entry not folded into it yet
+    String CURRENT_BALANCE = "CAST(COALESCE(u.balance, 0) + COALESCE((SELECT SUM(l.amount) FROM balance_ledger l " +
+            "WHERE l.user_id = u.id AND l.snapshot_id IS NULL), 0) AS BIGINT)";
+
+    @Query(value = "SELECT " + CURRENT_BALANCE + " FROM app_user u WHERE u.id = :userId", nativeQuery = true)
+    Optional<Long> findCurrentBalance(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, created_at) " +
+            "VALUES (:userId, :amount, :reason, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int record(@Param("userId") Long userId, @Param("amount") long amount, @Param("reason") String reason);
+
+    @Modifying
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, call_id, created_at) " +
+            "VALUES (:userId, :amount, :reason, :callId, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int recordForCall(@Param("userId") Long userId,
+                      @Param("amount") long amount,
+                      @Param("reason") String reason,
+                      @Param("callId") Long callId);
+
+    // Top-ups are a single insert in their own transaction, 0 rows means the user does not exist
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, created_at) " +
+            "SELECT u.id, :amount, 'TOP_UP', CURRENT_TIMESTAMP FROM app_user u WHERE u.id = :userId", nativeQuery = true)
+    int topUp(@Param("userId") Long userId, @Param("amount") long amount);
+
+    // As above, 0 rows also means the key was already used by this user
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, idempotency_key, created_at) " +
+            "SELECT u.id, :amount, 'TOP_UP', :idempotencyKey, CURRENT_TIMESTAMP FROM app_user u WHERE u.id = :userId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int topUpOnce(@Param("userId") Long userId, @Param("amount") long amount, @Param("idempotencyKey") String idempotencyKey);
+
+    @Query(value = "SELECT amount FROM balance_ledger WHERE user_id = :userId AND idempotency_key = :idempotencyKey",
+            nativeQuery = true)
+    Optional<Long> findAmountByIdempotencyKey(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
+
+    // Funded debits lock the users' rows so two of them cannot spend the same balance, credits never wait
+    @Query(value = "SELECT id FROM app_user WHERE id IN (SELECT user_id FROM call_participants WHERE call_id = :callId) " +
+            "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockParticipants(@Param("callId") Long callId);
+
+    @Query(value = "SELECT id FROM app_user WHERE id IN :userIds ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUsers(@Param("userIds") Collection<Long> userIds);
+
+    // One debit entry per participant, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, call_id, created_at) " +
+            "SELECT p.user_id, :amount, 'CALL_CHARGE', p.call_id, CURRENT_TIMESTAMP " +
+            "FROM call_participants p WHERE p.call_id = :callId", nativeQuery = true)
+    int chargeParticipants(@Param("callId") Long callId, @Param("amount") long amount);
+
+    // A no-show pays the penalty, or whatever is left when the balance is lower
+    @Modifying
+    @Query(value = "INSERT INTO balance_ledger (user_id, amount, reason, call_id, created_at) " +
+            "SELECT u.id, -LEAST(:penalty, " + CURRENT_BALANCE + "), 'NO_SHOW_PENALTY', :callId, CURRENT_TIMESTAMP " +
+            "FROM app_user u WHERE u.id IN :userIds", nativeQuery = true)
+    int chargeNoShows(@Param("callId") Long callId, @Param("userIds") Collection<Long> userIds, @Param("penalty") long penalty);
+
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM balance_ledger WHERE snapshot_id IS NULL ORDER BY id LIMIT :limit) pending",
+            nativeQuery = true)
+    Long findSnapshotBoundary(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE balance_ledger SET snapshot_id = :snapshotId WHERE snapshot_id IS NULL AND id <= :maxId",
+            nativeQuery = true)
+    int markForSnapshot(@Param("snapshotId") Long snapshotId, @Param("maxId") Long maxId);
+
+    // Same order as the funded debits' locks, so a fold and a debit never wait on each other in a cycle
+    @Query(value = "SELECT id FROM app_user WHERE id IN (SELECT user_id FROM balance_ledger WHERE snapshot_id = :snapshotId) " +
+            "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockSnapshotUsers(@Param("snapshotId") Long snapshotId);
+
+    // Folds exactly the entries stamped above, entries committed later stay pending for the next snapshot
+    @Modifying
+    @Query(value = "UPDATE app_user SET balance = COALESCE(balance, 0) + (SELECT SUM(l.amount) FROM balance_ledger l " +
+            "WHERE l.user_id = app_user.id AND l.snapshot_id = :snapshotId) " +
+            "WHERE id IN (SELECT user_id FROM balance_ledger WHERE snapshot_id = :snapshotId)", nativeQuery = true)
+    int applySnapshot(@Param("snapshotId") Long snapshotId);
+}
@@ -0,0 +1,7 @@
+package com.FoRS.BrainSwap_backend.repository;
+
+import com.FoRS.BrainSwap_backend.domain.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+}
@@ -2,16 +2,143 @@ package com.FoRS.BrainSwap_backend.repository;
 
 import com.FoRS.BrainSwap_backend.domain.Call;
 import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallProvisioningDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface CallRepository extends JpaRepository<Call, Long> {
     List<Call> findByPostId(Long postId);
-    List<Call> findByStatusAndIsActiveTrue(CallStatus status);
+
+    @Query("SELECT c.id FROM Call c WHERE c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.IN_PROGRESS " +
+            "AND c.endTime <= :now AND c.isActive = true ORDER BY c.endTime")
+    List<Long> findDueCallIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Another node already completing the call holds the row lock, it is skipped instead of waited for
+    @Query(value = "SELECT id FROM call WHERE id = :id AND status = 'IN_PROGRESS' AND is_active = true " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> lockInProgressCall(@Param("id") Long id);
+
+    @Query(value = "SELECT user_id FROM call_participants WHERE call_id = :callId", nativeQuery = true)
+    List<Long> findParticipantIds(@Param("callId") Long callId);
+
+    @EntityGraph("Call.detail")
+    Optional<Call> findDetailedById(Long id);
+
+    @Query("SELECT c.post.skill.id FROM Call c WHERE c.id = :id")
+    Optional<Long> findSkillIdById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph("Call.detail")
+    List<Call> findAll();
 
     @Query("SELECT c FROM Call c JOIN c.participants p WHERE p.id = :participantId")
+    @EntityGraph("Call.detail")
     List<Call> findAllByParticipantId(@Param("participantId") Long participantId);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO(" +
+            "c.id, c.post.id, c.owner.id, c.scheduledTime, c.maxParticipants, c.currentParticipants, " +
+            "c.participantPrice, c.status, c.isLearnTogether, c.isActive) FROM Call c")
+    List<CallSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO(" +
+            "c.id, c.post.id, c.owner.id, c.scheduledTime, c.maxParticipants, c.currentParticipants, " +
+            "c.participantPrice, c.status, c.isLearnTogether, c.isActive) FROM Call c WHERE c.id = :id")
+    Optional<CallSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO(" +
+            "c.id, c.post.id, c.owner.id, c.scheduledTime, c.maxParticipants, c.currentParticipants, " +
+            "c.participantPrice, c.status, c.isLearnTogether, c.isActive) " +
+            "FROM Call c JOIN c.participants p WHERE p.id = :participantId")
+    List<CallSummaryDTO> findSummariesByParticipantId(@Param("participantId") Long participantId);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.CallProvisioningDTO(c.id, c.zoomStatus, c.zoomJoinUrl) " +
+            "FROM Call c WHERE c.post.id = :postId ORDER BY c.scheduledTime")
+    List<CallProvisioningDTO> findProvisioningByPostId(@Param("postId") Long postId);
+
+    @Query("SELECT c.id FROM Call c WHERE c.zoomStatus IN :statuses AND c.isActive = true AND c.status = :status")
+    List<Long> findIdsByZoomStatusIn(@Param("statuses") List<ZoomProvisioningStatus> statuses,
+                                     @Param("status") CallStatus status);
+
+    // Only one worker on any node gets the call, a claim older than staleBefore belongs to a worker that died
+    @Modifying
+    @Transactional
+    @Query("UPDATE Call c SET c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PROVISIONING, " +
+            "c.zoomClaimedAt = :claimedAt WHERE c.id = :id AND c.isActive = true AND (" +
+            "c.zoomStatus IN (com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PENDING, " +
+            "com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.FAILED) " +
+            "OR (c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PROVISIONING " +
+            "AND c.zoomClaimedAt < :staleBefore))")
+    int claimForProvisioning(@Param("id") Long id,
+                             @Param("claimedAt") LocalDateTime claimedAt,
+                             @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Applies only while the claim is still the caller's
+    @Modifying
+    @Transactional
+    @Query("UPDATE Call c SET c.zoomJoinUrl = :joinUrl, c.zoomMeetingId = :meetingId, c.zoomPassword = :password, " +
+            "c.zoomHostKey = :hostKey, c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PROVISIONED " +
+            "WHERE c.id = :id AND c.zoomClaimedAt = :claimedAt " +
+            "AND c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PROVISIONING")
+    int updateZoomMeeting(@Param("id") Long id,
+                          @Param("claimedAt") LocalDateTime claimedAt,
+                          @Param("joinUrl") String joinUrl,
+                          @Param("meetingId") String meetingId,
+                          @Param("password") String password,
+                          @Param("hostKey") String hostKey);
+
+    // Takes a seat only while there is room, concurrent schedulers for the same call serialize on the row
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Call c SET c.currentParticipants = c.currentParticipants + 1 WHERE c.id = :id " +
+            "AND c.currentParticipants < c.maxParticipants AND c.isActive = true " +
+            "AND c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.SCHEDULED")
+    int reserveSeat(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Call c SET c.currentParticipants = c.currentParticipants - 1 WHERE c.id = :id AND c.currentParticipants > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    // Only one owner request can move the call out of SCHEDULED, concurrent seat reservations wait on the row
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Call c SET c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.IN_PROGRESS " +
+            "WHERE c.id = :id AND c.isActive = true " +
+            "AND c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.SCHEDULED")
+    int startCall(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Call c SET c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.COMPLETED " +
+            "WHERE c.id = :id AND c.isActive = true " +
+            "AND c.status = com.FoRS.BrainSwap_backend.utils.constants.CallStatus.IN_PROGRESS")
+    int finishCall(@Param("id") Long id);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM call_participants WHERE call_id = :callId AND user_id = :userId)",
+            nativeQuery = true)
+    boolean isParticipant(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    // Returns 0 when the user is already a participant, the unique (call_id, user_id) key decides
+    @Modifying
+    @Query(value = "INSERT INTO call_participants (call_id, user_id) VALUES (:callId, :userId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addParticipant(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM call_participants WHERE call_id = :callId AND user_id = :userId", nativeQuery = true)
+    int removeParticipant(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Call c SET c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.FAILED " +
+            "WHERE c.id = :id AND c.zoomClaimedAt = :claimedAt " +
+            "AND c.zoomStatus = com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus.PROVISIONING")
+    int failZoomProvisioning(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
 }
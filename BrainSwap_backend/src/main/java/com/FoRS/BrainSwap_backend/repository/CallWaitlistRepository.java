@@ -0,0 +1,37 @@
+package com.FoRS.BrainSwap_backend.repository;
+
+import com.FoRS.BrainSwap_backend.domain.CallWaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CallWaitlistRepository extends JpaRepository<CallWaitlistEntry, Long> {
+    List<CallWaitlistEntry> findByCallIdOrderByIdAsc(Long callId, Pageable pageable);
+
+    // Returns 0 when the user is already waiting for this call
+    @Modifying
+    @Query(value = "INSERT INTO call_waitlist (call_id, user_id, created_at) VALUES (:callId, :userId, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(w) FROM CallWaitlistEntry w WHERE w.call.id = :callId AND w.id <= " +
+            "(SELECT o.id FROM CallWaitlistEntry o WHERE o.call.id = :callId AND o.user.id = :userId)")
+    long findPosition(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    // Deleting the entry is the claim, only one concurrent promotion can get a row back
+    @Modifying
+    @Query("DELETE FROM CallWaitlistEntry w WHERE w.id = :id")
+    int claim(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM CallWaitlistEntry w WHERE w.call.id = :callId AND w.user.id = :userId")
+    int deleteByCallIdAndUserId(@Param("callId") Long callId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM CallWaitlistEntry w WHERE w.call.id = :callId")
+    int deleteByCallId(@Param("callId") Long callId);
+}
@@ -0,0 +1,40 @@
+package com.FoRS.BrainSwap_backend.repository;
+
+import com.FoRS.BrainSwap_backend.domain.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+// Lease times are all taken from the database clock, in the statement that acquires or releases the
+// lease, so mutual exclusion never depends on the nodes' clocks agreeing
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduled_job_lease (job_name, locked_until) VALUES (:jobName, LOCALTIMESTAMP) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int createIfMissing(@Param("jobName") String jobName);
+
+    // Conditional update, of several nodes racing for an expired lease exactly one gets a row back
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_job_lease SET locked_by = :node, " +
+            "locked_until = LOCALTIMESTAMP + CAST(:lockAtMostMillis AS BIGINT) * INTERVAL '0.001' SECOND, " +
+            "last_started_at = LOCALTIMESTAMP " +
+            "WHERE job_name = :jobName AND locked_until <= LOCALTIMESTAMP", nativeQuery = true)
+    int acquire(@Param("jobName") String jobName,
+                @Param("node") String node,
+                @Param("lockAtMostMillis") long lockAtMostMillis);
+
+    // Keeps the lease until lockAtLeastMillis after the run started, or frees it now if that has passed
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_job_lease SET " +
+            "locked_until = GREATEST(LOCALTIMESTAMP, last_started_at + CAST(:lockAtLeastMillis AS BIGINT) * INTERVAL '0.001' SECOND), " +
+            "last_finished_at = LOCALTIMESTAMP " +
+            "WHERE job_name = :jobName AND locked_by = :node", nativeQuery = true)
+    int release(@Param("jobName") String jobName,
+                @Param("node") String node,
+                @Param("lockAtLeastMillis") long lockAtLeastMillis);
+}
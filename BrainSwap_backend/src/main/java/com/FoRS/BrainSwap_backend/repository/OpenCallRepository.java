@@ -0,0 +1,47 @@
+package com.FoRS.BrainSwap_backend.repository;
+
+import com.FoRS.BrainSwap_backend.domain.OpenCall;
+import com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OpenCallRepository extends JpaRepository<OpenCall, Long> {
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO(" +
+            "o.callId, o.postId, o.skillId, o.ownerId, o.scheduledTime, o.freeSeats, o.participantPrice, o.isLearnTogether) " +
+            "FROM OpenCall o WHERE o.scheduledTime >= :from AND o.scheduledTime < :to " +
+            "ORDER BY o.scheduledTime, o.callId")
+    List<OpenCallDTO> findStartingBetween(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Pageable pageable);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO(" +
+            "o.callId, o.postId, o.skillId, o.ownerId, o.scheduledTime, o.freeSeats, o.participantPrice, o.isLearnTogether) " +
+            "FROM OpenCall o WHERE o.skillId = :skillId AND o.scheduledTime >= :from AND o.scheduledTime < :to " +
+            "ORDER BY o.scheduledTime, o.callId")
+    List<OpenCallDTO> findBySkillStartingBetween(@Param("skillId") Long skillId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM open_call WHERE call_id IN :callIds", nativeQuery = true)
+    int removeCalls(@Param("callIds") Collection<Long> callIds);
+
+    // Re-reads the calls after the pending changes are flushed, only calls that can still be booked get a row
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO open_call (call_id, post_id, skill_id, owner_id, scheduled_time, free_seats, " +
+            "participant_price, is_learn_together) " +
+            "SELECT c.id, c.post_id, p.skill_id, c.owner_id, c.scheduled_time, " +
+            "c.max_participants - c.current_participants, c.participant_price, c.is_learn_together " +
+            "FROM call c JOIN post p ON p.id = c.post_id " +
+            "WHERE c.id IN :callIds AND c.status = 'SCHEDULED' AND c.is_active = true " +
+            "AND c.current_participants < c.max_participants", nativeQuery = true)
+    int insertOpenCalls(@Param("callIds") Collection<Long> callIds);
+}
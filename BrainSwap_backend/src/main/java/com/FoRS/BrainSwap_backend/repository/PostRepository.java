@@ -2,11 +2,122 @@ package com.FoRS.BrainSwap_backend.repository;
 
 import com.FoRS.BrainSwap_backend.domain.AppUser;
 import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.utils.constants.LearningType;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
+    @EntityGraph("Post.detail")
     List<Post> findByOwner(AppUser owner);
+
+    @EntityGraph("Post.detail")
     List<Post> findByOwnerId(Long id);
+
+    @EntityGraph("Post.detail")
+    Optional<Post> findDetailedById(Long id);
+
+    @Override
+    @EntityGraph("Post.detail")
+    List<Post> findAll();
+
+    // Keyset page: newest first, strictly older than the cursor, every filter optional
+    @Query("""
+            SELECT p FROM Post p
+            WHERE (:cursor IS NULL OR p.id < :cursor)
+              AND (:skillId IS NULL OR p.skill.id = :skillId)
+              AND (:type IS NULL OR p.type = :type)
+              AND (:learningType IS NULL OR p.learningType = :learningType)
+              AND (:isActive IS NULL OR p.isActive = :isActive)
+              AND (:minPrice IS NULL OR p.price >= :minPrice)
+              AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+            ORDER BY p.id DESC
+            """)
+    @EntityGraph("Post.feed")
+    List<Post> findFeedPage(@Param("cursor") Long cursor,
+                            @Param("skillId") Long skillId,
+                            @Param("type") PostType type,
+                            @Param("learningType") LearningType learningType,
+                            @Param("isActive") Boolean isActive,
+                            @Param("minPrice") Integer minPrice,
+                            @Param("maxPrice") Integer maxPrice,
+                            Pageable pageable);
+
+    @Query("""
+            SELECT new com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO(
+                p.id, p.title, o.id, o.username, p.skill.id, p.price, p.learningType, p.type, p.isActive)
+            FROM Post p JOIN p.owner o
+            WHERE (:cursor IS NULL OR p.id < :cursor)
+              AND (:skillId IS NULL OR p.skill.id = :skillId)
+              AND (:type IS NULL OR p.type = :type)
+              AND (:learningType IS NULL OR p.learningType = :learningType)
+              AND (:isActive IS NULL OR p.isActive = :isActive)
+              AND (:minPrice IS NULL OR p.price >= :minPrice)
+              AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+            ORDER BY p.id DESC
+            """)
+    List<PostSummaryDTO> findFeedSummaryPage(@Param("cursor") Long cursor,
+                                             @Param("skillId") Long skillId,
+                                             @Param("type") PostType type,
+                                             @Param("learningType") LearningType learningType,
+                                             @Param("isActive") Boolean isActive,
+                                             @Param("minPrice") Integer minPrice,
+                                             @Param("maxPrice") Integer maxPrice,
+                                             Pageable pageable);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO(" +
+            "p.id, p.title, o.id, o.username, p.skill.id, p.price, p.learningType, p.type, p.isActive) " +
+            "FROM Post p JOIN p.owner o WHERE p.id = :id")
+    Optional<PostSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO(" +
+            "p.id, p.title, o.id, o.username, p.skill.id, p.price, p.learningType, p.type, p.isActive) " +
+            "FROM Post p JOIN p.owner o WHERE o.id = :ownerId")
+    List<PostSummaryDTO> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO(" +
+            "p.id, p.title, o.id, o.username, p.skill.id, p.price, p.learningType, p.type, p.isActive) " +
+            "FROM Post p JOIN p.owner o WHERE o.username = :username")
+    List<PostSummaryDTO> findSummariesByOwnerUsername(@Param("username") String username);
+
+    interface SearchHit {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        Long getSkillId();
+        Integer getPrice();
+        Double getRank();
+    }
+
+    // PostgreSQL only: full-text match on the trigger-maintained search_vector, or a trigram match on the title
+    // so typos still find the post. Both sides of the OR are served by their own GIN index, a post the
+    // backfill has not reached yet is still found by its title
+    @Query(value = """
+            SELECT p.id AS "id", p.title AS "title", p.description AS "description", p.skill_id AS "skillId",
+                   p.price AS "price",
+                   CAST(COALESCE(ts_rank_cd(p.search_vector, q.query), 0) + similarity(p.title, :text) AS double precision) AS "rank"
+            FROM post p, websearch_to_tsquery('english', :text) AS q(query)
+            WHERE p.is_active = true AND (p.search_vector @@ q.query OR p.title % :text)
+            ORDER BY "rank" DESC, p.id DESC
+            """, nativeQuery = true)
+    List<SearchHit> search(@Param("text") String text, Pageable pageable);
+
+    // Posts written before V6__search.sql, walked in id order by PostSearchBackfill
+    @Query(value = "SELECT id FROM post WHERE id > :afterId AND search_vector IS NULL ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findIdsWithoutSearchVector(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Rewriting the title fires the post_search_vector trigger, which fills in search_vector
+    @Modifying
+    @Query(value = "UPDATE post SET title = title WHERE id IN :ids", nativeQuery = true)
+    int indexForSearch(@Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,69 @@
 package com.FoRS.BrainSwap_backend.repository;
 
 import com.FoRS.BrainSwap_backend.domain.Skill;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SkillRepository extends JpaRepository<Skill, Long> {
     List<Skill> findAllById(Iterable<Long> ids);
     List<Skill> findByNameIn(Iterable<String> names);
+
+    // Inserts the missing names as custom skills with SkillEntityListener's defaults and returns every
+    // requested skill this statement can see. Each row takes its own skill_seq value, which pooled-lo
+    // treats as a block of its own. A name committed concurrently by another transaction is skipped
+    // by ON CONFLICT but not visible to this snapshot, so it can be absent from the result
+    @Query(value = """
+            WITH input AS (SELECT DISTINCT t.name FROM unnest(CAST(:names AS text[])) AS t(name)),
+            inserted AS (
+                INSERT INTO skill (id, name, popularity, market_value, predefined)
+                SELECT nextval('skill_seq'), i.name, 0, 15, false FROM input i
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name, popularity, market_value, predefined
+            )
+            SELECT id, name, popularity, market_value, predefined FROM inserted
+            UNION ALL
+            SELECT s.id, s.name, s.popularity, s.market_value, s.predefined
+            FROM skill s JOIN input i ON i.name = s.name
+            """, nativeQuery = true)
+    List<Skill> upsertByNames(@Param("names") String[] names);
+
+    // Popularity flushes from several nodes take the row locks in id order so they cannot deadlock
+    @Query(value = "SELECT id FROM skill WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockSkills(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE skill SET popularity = COALESCE(popularity, 0) + :delta WHERE id IN :ids", nativeQuery = true)
+    int addPopularity(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    interface SearchHit {
+        Long getId();
+        String getName();
+        Integer getPopularity();
+        Double getScore();
+    }
+
+    // PostgreSQL only: typo-tolerant match through the trigram index on name
+    @Query(value = """
+            SELECT s.id AS "id", s.name AS "name", s.popularity AS "popularity",
+                   CAST(similarity(s.name, :text) AS double precision) AS "score"
+            FROM skill s
+            WHERE s.name % :text
+            ORDER BY "score" DESC, s.popularity DESC NULLS LAST
+            """, nativeQuery = true)
+    List<SearchHit> searchByName(@Param("text") String text, Pageable pageable);
+
+    // Prefix must have LIKE wildcards escaped, answered from the lower(name) text_pattern_ops index
+    @Query(value = """
+            SELECT s.id AS "id", s.name AS "name", s.popularity AS "popularity", CAST(1 AS double precision) AS "score"
+            FROM skill s
+            WHERE lower(s.name) LIKE lower(:prefix) || '%'
+            ORDER BY s.popularity DESC NULLS LAST, s.name
+            """, nativeQuery = true)
+    List<SearchHit> findByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
 }
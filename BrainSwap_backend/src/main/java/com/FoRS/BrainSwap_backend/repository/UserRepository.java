@@ -1,10 +1,38 @@
 package com.FoRS.BrainSwap_backend.repository;
 
 import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.utils.dto.user.UserSummaryDTO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUsername(String username);
-}
+
+    @Query("SELECT u.tokenVersion FROM AppUser u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @EntityGraph("AppUser.profile")
+    Optional<AppUser> findDetailedById(Long id);
+
+    @EntityGraph("AppUser.profile")
+    Optional<AppUser> findDetailedByUsername(String username);
+
+    @Override
+    @EntityGraph("AppUser.profile")
+    List<AppUser> findAll();
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.user.UserSummaryDTO(u.id, u.username, u.email, u.currentBalance) FROM AppUser u")
+    List<UserSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new com.FoRS.BrainSwap_backend.utils.dto.user.UserSummaryDTO(u.id, u.username, u.email, u.currentBalance) FROM AppUser u WHERE u.id = :id")
+    Optional<UserSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT u.username FROM Call c JOIN c.participants u " +
+            "WHERE c.id = :callId AND u.currentBalance < c.participantPrice ORDER BY u.username")
+    List<String> findUnderfundedParticipants(@Param("callId") Long callId);
+}
\ No newline at end of file
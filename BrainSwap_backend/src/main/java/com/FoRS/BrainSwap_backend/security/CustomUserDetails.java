@@ -23,6 +23,13 @@ public class CustomUserDetails implements UserDetails {
         this.password = user.getPassword();
         this.role = user.getRole(); // e.g., "USER" or "ADMIN"
     }
+
+    // Built from verified token claims, no password is needed once the token is trusted
+    public CustomUserDetails(Long id, String username, Role role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
     // constructor, getters, and UserDetails methods
 
     @Override
@@ -1,43 +1,33 @@
 package com.FoRS.BrainSwap_backend.security;
 
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.Role;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtGenerator jwt;
     private final CustomUserDetailsService uds;
+    private final JwtPrincipalCache principalCache;
+    private final UserRepository userRepository;
+
+    // false falls back to loading the user from the database on every request
+    @Value("${security.jwt.stateless:true}")
+    private boolean stateless;
 
-    /*@Override
-    protected void doFilterInternal(HttpServletRequest req,
-                                    HttpServletResponse res,
-                                    FilterChain chain)
-            throws java.io.IOException, ServletException {
-        final String auth = req.getHeader("Authorization");
-        if (auth != null && auth.startsWith("Bearer ")) {
-            String token = auth.substring(7);
-            String username = jwt.extract(token).getSubject();
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = uds.loadUserByUsername(username);
-                if (jwt.isValid(token, username)) {
-                    UsernamePasswordAuthenticationToken upat =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
-                    upat.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-                    SecurityContextHolder.getContext().setAuthentication(upat);
-                }
-            }
-        }
-        chain.doFilter(req, res);
-    }*/
     @Override
     protected void doFilterInternal(HttpServletRequest req,
                                     HttpServletResponse res,
@@ -45,18 +35,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String auth = req.getHeader("Authorization");
 
-        if (auth != null && auth.startsWith("Bearer ")) {
+        if (auth != null && auth.startsWith("Bearer ") && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = auth.substring(7);
             try {
-                String username = jwt.extract(token).getSubject();
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    var userDetails = uds.loadUserByUsername(username);
-                    if (jwt.isValid(token, username)) {
-                        var authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                UserDetails userDetails = stateless ? loadFromClaims(token) : loadFromDatabase(token);
+                if (userDetails != null) {
+                    var authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             } catch (Exception e) {
                 // Optional: log minimal info
@@ -67,4 +54,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         chain.doFilter(req, res);
     }
+
+    // The token is signed by us, so id and role can be trusted. Only its version is checked against the
+    // database, once per cache TTL, so a change or delete on any node rejects older tokens everywhere
+    private UserDetails loadFromClaims(String token) {
+        Optional<CustomUserDetails> cached = principalCache.get(token);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Claims claims = jwt.extract(token);     // verifies signature and expiry
+        Long id = claims.get("id", Long.class);
+        Integer version = claims.get(JwtGenerator.VERSION_CLAIM, Integer.class);
+        Optional<Integer> currentVersion = userRepository.findTokenVersionById(id);
+        // Tokens minted before versions existed count as version 0
+        if (currentVersion.isEmpty() || !currentVersion.get().equals(version == null ? 0 : version)) {
+            return null;
+        }
+        CustomUserDetails principal = new CustomUserDetails(
+                id,
+                claims.getSubject(),
+                Role.valueOf(claims.get("role", String.class))
+        );
+        principalCache.put(token, principal, claims.getExpiration());
+        return principal;
+    }
+
+    private UserDetails loadFromDatabase(String token) {
+        Claims claims = jwt.extract(token);     // verifies signature and expiry
+        return uds.loadUserByUsername(claims.getSubject());
+    }
 }
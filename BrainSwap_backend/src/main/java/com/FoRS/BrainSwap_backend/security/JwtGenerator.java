@@ -11,12 +11,16 @@ import java.util.Map;
 @Component
 public class JwtGenerator {
     private final Key secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private static final long EXP_MS = 1000 * 60 * 60; // 1 h
+    static final long EXP_MS = 1000 * 60 * 60; // 1 h
 
-    public String generateToken(Long id, String username, String role) {
+    static final String VERSION_CLAIM = "ver";
+
+    public String generateToken(Long id, String username, String role, Integer tokenVersion) {
         return Jwts.builder()
                 .setSubject(username)
+                .setIssuedAt(new Date())
                 .claim("id", id)
+                .claim(VERSION_CLAIM, tokenVersion)
                 .addClaims(Map.of("role", role))
                 .setExpiration(new Date(System.currentTimeMillis() + EXP_MS))
                 .signWith(secret)
@@ -27,9 +31,4 @@ public class JwtGenerator {
         return Jwts.parserBuilder().setSigningKey(secret).build()
                 .parseClaimsJws(token).getBody();
     }
-
-    public boolean isValid(String token, String username) {
-        return extract(token).getSubject().equals(username)
-                && extract(token).getExpiration().after(new Date());
-    }
 }
@@ -0,0 +1,65 @@
+package com.FoRS.BrainSwap_backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verified tokens and the principals built from their claims, so a token is only parsed and its
+ * version checked against app_user.token_version once per TTL instead of on every request.
+ * The TTL is how long another node may keep accepting a token after its user was changed or deleted.
+ */
+@Component
+public class JwtPrincipalCache {
+    private final Cache<String, CachedPrincipal> principals;
+
+    private record CachedPrincipal(CustomUserDetails principal, long expiresAtMillis) {}
+
+    public JwtPrincipalCache(@Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                             @Value("${security.jwt.cache.ttl-seconds:30}") long ttlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal entry, long currentTime) {
+                        // Never keep a token around longer than the token itself is valid
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(entry.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Optional<CustomUserDetails> get(String token) {
+        return Optional.ofNullable(principals.getIfPresent(token)).map(CachedPrincipal::principal);
+    }
+
+    public void put(String token, CustomUserDetails principal, Date expiresAt) {
+        principals.put(token, new CachedPrincipal(principal, expiresAt.getTime()));
+    }
+
+    /**
+     * Drops this node's cached tokens of a user whose token version was bumped or who was deleted,
+     * other nodes drop theirs when the TTL runs out.
+     */
+    public void invalidateUser(Long userId) {
+        principals.asMap().values().removeIf(entry -> entry.principal().getId().equals(userId));
+    }
+}
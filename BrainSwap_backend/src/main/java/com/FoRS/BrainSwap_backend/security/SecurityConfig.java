@@ -46,7 +46,7 @@ public class SecurityConfig {
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers("/skills/public").permitAll()
+                        .requestMatchers("/skills/public", "/skills/public/**").permitAll()
                         .requestMatchers("/skills/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
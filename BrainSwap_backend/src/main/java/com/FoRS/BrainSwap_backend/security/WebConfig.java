@@ -1,7 +1,9 @@
 package com.FoRS.BrainSwap_backend.security;
 
+import com.FoRS.BrainSwap_backend.utils.constants.ViewMode;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -24,6 +26,12 @@ public class WebConfig {
                         .allowedHeaders("*")
                         .allowCredentials(true);
             }
+
+            @Override
+            public void addFormatters(FormatterRegistry registry) {
+                // Lets clients pass ?view=summary|full in any case
+                registry.addConverter(String.class, ViewMode.class, ViewMode::from);
+            }
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.BalanceSnapshot;
+import com.FoRS.BrainSwap_backend.repository.BalanceLedgerRepository;
+import com.FoRS.BrainSwap_backend.repository.BalanceSnapshotRepository;
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.LedgerReason;
+import com.FoRS.BrainSwap_backend.utils.exception.IdempotencyKeyReusedException;
+import com.FoRS.BrainSwap_backend.utils.exception.InsufficientBalanceException;
+import com.FoRS.BrainSwap_backend.utils.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every balance change is an insert into balance_ledger. A user's current balance is the snapshot
+ * in app_user.balance plus the entries not folded into it yet; BalanceSnapshotScheduler folds them in.
+ */
+@Service
+public class BalanceService {
+    private final BalanceLedgerRepository ledgerRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> balances;
+
+    public BalanceService(BalanceLedgerRepository ledgerRepository,
+                          BalanceSnapshotRepository snapshotRepository,
+                          UserRepository userRepository,
+                          @Value("${balance.cache.max-size:10000}") long maxSize,
+                          @Value("${balance.cache.ttl-seconds:5}") long ttlSeconds) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        // Writes on this node evict on commit, the TTL bounds how stale another node's writes can look
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public long getBalance(Long userId) {
+        Long balance = balances.get(userId, id -> ledgerRepository.findCurrentBalance(id).orElse(null));
+        if (balance == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return balance;
+    }
+
+    // No row lock and no read-modify-write, concurrent top-ups for one user never wait on each other
+    public long topUp(Long userId, long amount, String idempotencyKey) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Top-up amount must be positive");
+        }
+        int inserted;
+        try {
+            inserted = idempotencyKey == null || idempotencyKey.isBlank()
+                    ? ledgerRepository.topUp(userId, amount)
+                    : ledgerRepository.topUpOnce(userId, amount, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race on the same idempotency key, the other request recorded the credit
+            inserted = 0;
+        }
+        if (inserted == 0 && idempotencyKey != null && !idempotencyKey.isBlank()) {
+            // A retry must repeat the original request, a different amount under the same key is a client bug
+            ledgerRepository.findAmountByIdempotencyKey(userId, idempotencyKey)
+                    .filter(recorded -> recorded != amount)
+                    .ifPresent(recorded -> {
+                        throw new IdempotencyKeyReusedException("Idempotency key was already used for a top-up of " + recorded);
+                    });
+        }
+        if (inserted == 0 && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        balances.invalidate(userId);
+        return getBalance(userId);
+    }
+
+    @Transactional
+    public void record(Long userId, long amount, LedgerReason reason) {
+        ledgerRepository.record(userId, amount, reason.name());
+        evictAfterCommit(List.of(userId));
+    }
+
+    @Transactional
+    public void recordForCall(Long userId, long amount, LedgerReason reason, Long callId) {
+        ledgerRepository.recordForCall(userId, amount, reason.name(), callId);
+        evictAfterCommit(List.of(userId));
+    }
+
+    // Records the difference between the requested and the current balance
+    @Transactional
+    public long adjustTo(Long userId, long target) {
+        ledgerRepository.lockUsers(List.of(userId));
+        long current = ledgerRepository.findCurrentBalance(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (target != current) {
+            record(userId, target - current, LedgerReason.ADJUSTMENT);
+        }
+        return target;
+    }
+
+    // Charges every participant or nobody, a shortfall throws and rolls the caller's transaction back
+    @Transactional
+    public void chargeCallParticipants(Long callId, int participantPrice) {
+        List<Long> participantIds = ledgerRepository.lockParticipants(callId);
+        List<String> underfunded = userRepository.findUnderfundedParticipants(callId);
+        if (!underfunded.isEmpty()) {
+            throw new InsufficientBalanceException(underfunded);
+        }
+        ledgerRepository.chargeParticipants(callId, -participantPrice);
+        evictAfterCommit(participantIds);
+    }
+
+    @Transactional
+    public void chargeNoShows(Long callId, List<Long> userIds, long penalty) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        ledgerRepository.lockUsers(userIds);
+        ledgerRepository.chargeNoShows(callId, userIds, penalty);
+        evictAfterCommit(userIds);
+    }
+
+    // Folds up to batchSize of the oldest pending entries into app_user.balance, current balances do not change
+    @Transactional
+    public int foldIntoSnapshot(int batchSize) {
+        Long maxId = ledgerRepository.findSnapshotBoundary(batchSize);
+        if (maxId == null) {
+            return 0;
+        }
+        BalanceSnapshot snapshot = snapshotRepository.save(BalanceSnapshot.builder()
+                .createdAt(LocalDateTime.now())
+                .maxLedgerId(maxId)
+                .build());
+        int entries = ledgerRepository.markForSnapshot(snapshot.getId(), maxId);
+        ledgerRepository.lockSnapshotUsers(snapshot.getId());
+        ledgerRepository.applySnapshot(snapshot.getId());
+        snapshot.setEntries(entries);
+        return entries;
+    }
+
+    private void evictAfterCommit(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balances.invalidateAll(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                balances.invalidateAll(userIds);
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically folds pending ledger entries into the balance snapshot so current-balance
+ * reads only ever sum a short tail of entries.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceSnapshotScheduler {
+    private static final String JOB_NAME = "balance-snapshot";
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(30);
+
+    private final BalanceService balanceService;
+    private final JobLockService jobLockService;
+
+    @Value("${balance.snapshot.batch-size:5000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${balance.snapshot.interval-ms:60000}")
+    public void foldLedger() {
+        jobLockService.runExclusively(JOB_NAME, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR, () -> {
+            int folded;
+            do {
+                folded = balanceService.foldIntoSnapshot(batchSize);
+            } while (folded == batchSize);
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Completes in-progress calls once their end time has passed. Only due calls are read, in
+ * bounded batches, and each call is completed in its own transaction so one failure does not
+ * roll back the others. Only the node holding the job lease runs a turn, and a call locked by another
+ * transaction is skipped rather than waited for.
+ */
+@Component
+@RequiredArgsConstructor
+public class CallCompletionScheduler {
+    private static final String JOB_NAME = "call-completion";
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(30);
+
+    private final CallRepository callRepository;
+    private final CallService callService;
+    private final JobLockService jobLockService;
+
+    @Value("${calls.completion.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${calls.completion.interval-ms:60000}")
+    public void completeDueCalls() {
+        jobLockService.runExclusively(JOB_NAME, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR, this::drainDueCalls);
+    }
+
+    private void drainDueCalls() {
+        List<Long> dueCallIds;
+        int completed;
+        do {
+            dueCallIds = callRepository.findDueCallIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            completed = 0;
+            for (Long callId : dueCallIds) {
+                try {
+                    if (callService.completeDueCall(callId)) {
+                        completed++;
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Auto-completion of call " + callId + " failed: " + e.getMessage());
+                }
+            }
+            // Keep draining while full batches make progress, failed or foreign-locked calls wait for the next run
+        } while (dueCallIds.size() == batchSize && completed > 0);
+    }
+}
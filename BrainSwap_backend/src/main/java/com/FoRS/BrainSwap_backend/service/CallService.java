@@ -1,19 +1,28 @@
 package com.FoRS.BrainSwap_backend.service;
 
 import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.CallWaitlistEntry;
 import com.FoRS.BrainSwap_backend.domain.AppUser;
 import com.FoRS.BrainSwap_backend.domain.Post;
 import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.repository.CallWaitlistRepository;
 import com.FoRS.BrainSwap_backend.repository.PostRepository;
 import com.FoRS.BrainSwap_backend.repository.UserRepository;
 import com.FoRS.BrainSwap_backend.security.SecurityUtil;
 import com.FoRS.BrainSwap_backend.utils.constants.CallConstants;
 import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.SkillActivity;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
 import com.FoRS.BrainSwap_backend.utils.dto.call.CreateCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.GetCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.UpdateCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.ScheduleCallDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.call.CancelScheduleDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallProvisioningDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CallSummaryDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.WaitlistPositionDTO;
+import com.FoRS.BrainSwap_backend.utils.event.CallsCreatedEvent;
+import com.FoRS.BrainSwap_backend.utils.event.SkillActivityEvent;
 import com.FoRS.BrainSwap_backend.utils.exception.ResourceNotFoundException;
 import com.FoRS.BrainSwap_backend.utils.exception.CallFullException;
 import com.FoRS.BrainSwap_backend.utils.exception.UserAlreadyScheduledException;
@@ -22,28 +31,34 @@ import com.FoRS.BrainSwap_backend.utils.mapper.AppUserMapper;
 import com.FoRS.BrainSwap_backend.utils.mapper.CallMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCallDTO, Long> {
+    // Waitlist entries looked at per freed seat, more than one in case a concurrent cancellation claims the head
+    private static final int WAITLIST_PROMOTION_CANDIDATES = 5;
+
     private final CallRepository callRepository;
+    private final CallWaitlistRepository waitlistRepository;
+    private final CallSettlementEngine settlementEngine;
+    private final OpenCallService openCallService;
+    private final BalanceService balanceService;
     private final UserRepository userRepository;
-    private final ZoomService zoomService;
+    private final ApplicationEventPublisher eventPublisher;
     @Autowired
     private final CallMapper callMapper;
     @Autowired
     private final AppUserMapper appUserMapper;
     @Autowired
     private final SecurityUtil securityUtil;
-    private final UserService userService;
     private final PostRepository postRepository;
 
     @Override
@@ -74,29 +89,25 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             entity.setParticipantPrice(post.getPrice());
         }
         
-        // Create Zoom meeting
-        ZoomService.ZoomMeetingInfo zoomMeetingInfo = zoomService.createMeeting(
-            "BrainSwap Session",
-            entity.getScheduledTime(),
-            entity.getMaxParticipants()
-        );
-        
-        // Set Zoom meeting details
-        entity.setZoomJoinUrl(zoomMeetingInfo.getJoinUrl());
-        entity.setZoomMeetingId(zoomMeetingInfo.getMeetingId());
-        entity.setZoomPassword(zoomMeetingInfo.getPassword());
-        entity.setZoomHostKey(zoomMeetingInfo.getHostKey());
-        
-        // Save the call
-        return callMapper.toDTO(callRepository.save(entity));
+        // The Zoom meeting is created in the background once this transaction commits
+        entity.setZoomStatus(ZoomProvisioningStatus.PENDING);
+        Call saved = callRepository.save(entity);
+        openCallService.refresh(saved.getId());
+        eventPublisher.publishEvent(new CallsCreatedEvent(List.of(saved.getId())));
+        return callMapper.toDTO(saved);
     }
 
     @Transactional
     public List<Call> saveAll(List<Call> calls) {
-        return callRepository.saveAll(calls);
+        List<Call> saved = callRepository.saveAll(calls);
+        openCallService.refresh(saved.stream().map(Call::getId).toList());
+        // Meetings for the whole batch are created concurrently once the transaction commits
+        eventPublisher.publishEvent(new CallsCreatedEvent(saved.stream().map(Call::getId).toList()));
+        return saved;
     }
 
     @Override
+    @Transactional
     public GetCallDTO update(UpdateCallDTO dto) {
         Call entity = callRepository.findById(dto.id()).orElseThrow(() -> new RuntimeException("Call not found"));
         if(dto.scheduledTime() != null)
@@ -105,27 +116,45 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             entity.setMaxParticipants(dto.maxParticipants());
         if(dto.status() != null)
             entity.setStatus(dto.status());
-        return callMapper.toDTO(callRepository.save(entity));
+        Call saved = callRepository.save(entity);
+        openCallService.refresh(saved.getId());
+        return callMapper.toDTO(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GetCallDTO> findAll() {
         return callMapper.toDTO(callRepository.findAll());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<GetCallDTO> findById(Long id) {
-        Optional<Call> entity = callRepository.findById(id);
+        Optional<Call> entity = callRepository.findDetailedById(id);
         return entity.map(callMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public List<CallSummaryDTO> findAllSummaries() {
+        return callRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CallSummaryDTO> findSummaryById(Long id) {
+        return callRepository.findSummaryById(id);
+    }
+
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        waitlistRepository.deleteByCallId(id);
+        openCallService.remove(id);
         callRepository.deleteById(id);
     }
 
+    // Returns the call's summary, the detailed DTO would load and price every participant
     @Transactional
-    public GetCallDTO scheduleCall(ScheduleCallDTO dto) {
+    public CallSummaryDTO scheduleCall(ScheduleCallDTO dto) {
         Call call = callRepository.findById(dto.callId())
                 .orElseThrow(() -> new ResourceNotFoundException("Call not found"));
 
@@ -133,35 +162,60 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             throw new ResourceNotFoundException("Call has been removed");
         }
 
-        AppUser user = userRepository.findById(dto.userId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(dto.userId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
         if (call.getStatus() != CallStatus.SCHEDULED) {
             throw new RuntimeException("Cannot join a call that is not scheduled");
         }
 
-        if (call.getCurrentParticipants() >= call.getMaxParticipants()) {
+        // Single-row insert on the join table, the user's scheduled calls are the inverse side of it
+        if (callRepository.addParticipant(call.getId(), dto.userId()) == 0) {
+            throw new UserAlreadyScheduledException("User is already scheduled for this call");
+        }
+
+        // Conditional increment, a full call rolls the insert above back with the transaction
+        if (callRepository.reserveSeat(call.getId()) == 0) {
             throw new CallFullException("Call is full");
         }
+        waitlistRepository.deleteByCallIdAndUserId(call.getId(), dto.userId());
+        openCallService.refresh(call.getId());
+        publishSkillActivity(call.getId(), SkillActivity.CALL_SCHEDULED);
 
-        if (call.getParticipants().contains(user)) {
-            throw new UserAlreadyScheduledException("User is already scheduled for this call");
+        return callRepository.findSummaryById(call.getId()).orElseThrow();
+    }
+
+    @Transactional
+    public CallSummaryDTO cancelSchedule(CancelScheduleDTO dto) {
+        Call call = callRepository.findById(dto.callId())
+                .orElseThrow(() -> new ResourceNotFoundException("Call not found"));
+
+        if (!call.getIsActive()) {
+            throw new ResourceNotFoundException("Call has been removed");
         }
 
-        // Add user to participants
-        call.getParticipants().add(user);
-        call.setCurrentParticipants(call.getCurrentParticipants() + 1);
-        List<Call> userScheduledCalls = user.getScheduledCalls();
-        userScheduledCalls.add(call);
-        user.setScheduledCalls(userScheduledCalls);
-        userService.update(AppUserMapper.toUpdateDTO(user));
+        if (!userRepository.existsById(dto.userId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        call = callRepository.save(call);
-        return callMapper.toDTO(call);
+        // Remove user from participants
+        if (callRepository.removeParticipant(call.getId(), dto.userId()) == 0) {
+            throw new ScheduleNotFoundException("User is not scheduled for this call");
+        }
+
+        // The freed seat goes straight to the longest-waiting user, otherwise it is released
+        boolean promoted = call.getStatus() == CallStatus.SCHEDULED && promoteFromWaitlist(call.getId());
+        if (!promoted) {
+            callRepository.releaseSeat(call.getId());
+            openCallService.refresh(call.getId());
+        }
+
+        return callRepository.findSummaryById(call.getId()).orElseThrow();
     }
 
     @Transactional
-    public GetCallDTO cancelSchedule(CancelScheduleDTO dto) {
+    public WaitlistPositionDTO joinWaitlist(ScheduleCallDTO dto) {
         Call call = callRepository.findById(dto.callId())
                 .orElseThrow(() -> new ResourceNotFoundException("Call not found"));
 
@@ -169,19 +223,49 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             throw new ResourceNotFoundException("Call has been removed");
         }
 
-        AppUser user = userRepository.findById(dto.userId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(dto.userId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        if (!call.getParticipants().contains(user)) {
-            throw new ScheduleNotFoundException("User is not scheduled for this call");
+        if (call.getStatus() != CallStatus.SCHEDULED) {
+            throw new RuntimeException("Cannot wait for a call that is not scheduled");
         }
 
-        // Remove user from participants
-        call.getParticipants().remove(user);
-        call.setCurrentParticipants(call.getCurrentParticipants() - 1);
+        if (call.getCurrentParticipants() < call.getMaxParticipants()) {
+            throw new RuntimeException("Call still has free seats");
+        }
 
-        call = callRepository.save(call);
-        return callMapper.toDTO(call);
+        if (callRepository.isParticipant(call.getId(), dto.userId())) {
+            throw new UserAlreadyScheduledException("User is already scheduled for this call");
+        }
+
+        if (waitlistRepository.enqueue(call.getId(), dto.userId()) == 0) {
+            throw new UserAlreadyScheduledException("User is already on the waitlist for this call");
+        }
+
+        return new WaitlistPositionDTO(call.getId(), dto.userId(), waitlistRepository.findPosition(call.getId(), dto.userId()));
+    }
+
+    @Transactional
+    public void leaveWaitlist(CancelScheduleDTO dto) {
+        if (waitlistRepository.deleteByCallIdAndUserId(dto.callId(), dto.userId()) == 0) {
+            throw new ScheduleNotFoundException("User is not on the waitlist for this call");
+        }
+    }
+
+    // Hands the seat of a cancelled participant to the head of the waitlist, the seat count stays unchanged
+    private boolean promoteFromWaitlist(Long callId) {
+        List<CallWaitlistEntry> candidates = waitlistRepository.findByCallIdOrderByIdAsc(
+                callId, PageRequest.of(0, WAITLIST_PROMOTION_CANDIDATES));
+        for (CallWaitlistEntry candidate : candidates) {
+            Long userId = candidate.getUser().getId();
+            if (waitlistRepository.claim(candidate.getId()) == 1 && callRepository.addParticipant(callId, userId) == 1) {
+                // The freed seat is taken again, which counts like any other scheduling
+                publishSkillActivity(callId, SkillActivity.CALL_SCHEDULED);
+                return true;
+            }
+        }
+        return false;
     }
 
     @Transactional
@@ -197,23 +281,17 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Check if user is a participant or the owner
-        if (!call.getParticipants().contains(currentUser) && !call.getOwner().getId().equals(currentUser.getId())) {
+        boolean isOwner = call.getOwner().getId().equals(currentUser.getId());
+        if (!isOwner && !callRepository.isParticipant(callId, currentUser.getId())) {
             throw new RuntimeException("User is not a participant or owner of this call");
         }
 
         // If user is the owner and call is scheduled, update status to IN_PROGRESS and deduct balances
-        if (call.getOwner().getId().equals(currentUser.getId()) && call.getStatus() == CallStatus.SCHEDULED) {
-            // Deduct balance from all participants
-            for (AppUser participant : call.getParticipants()) {
-                if (participant.getBalance() < call.getParticipantPrice()) {
-                    throw new RuntimeException("Participant " + participant.getUsername() + " has insufficient balance");
-                }
-                participant.setBalance(participant.getBalance() - call.getParticipantPrice());
-                userRepository.save(participant);
-            }
-            
-            call.setStatus(CallStatus.IN_PROGRESS);
-            callRepository.save(call);
+        if (isOwner && call.getStatus() == CallStatus.SCHEDULED && callRepository.startCall(callId) == 1) {
+            openCallService.remove(callId);
+            // Charges every participant or nobody, a shortfall rolls the status change back as well
+            balanceService.chargeCallParticipants(callId, call.getParticipantPrice());
+            return callMapper.toDTO(callRepository.findDetailedById(callId).orElseThrow());
         }
 
         return callMapper.toDTO(call);
@@ -226,6 +304,7 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
 
         call.setIsActive(false);
         callRepository.save(call);
+        openCallService.remove(callId);
     }
 
     @Transactional
@@ -237,40 +316,14 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             throw new RuntimeException("Call is not active or not in progress");
         }
 
-        // Mark call as completed
-        call.setStatus(CallStatus.COMPLETED);
-        callRepository.save(call);
-
-        // Compute owner revenue and penalties
-        int participantPrice = call.getParticipantPrice();
-        int ownerRevenue = 0;
-        int teachingRevenuePerUser = (int) Math.ceil(participantPrice * CallConstants.TEACHING_REVENUE_PERCENTAGE / 100.0);
-        for (AppUser participant : call.getParticipants()) {
-            if (joinedUserIds.contains(participant.getId())) {
-                // User joined, balance already deducted at call start
-                if (!call.getIsLearnTogether()) {
-                    ownerRevenue += teachingRevenuePerUser;
-                }
-            } else {
-                // User did not join, apply penalty
-                int penalty = (int) Math.ceil(participantPrice * CallConstants.NO_SHOW_PENALTY_PERCENTAGE / 100.0);
-                if (participant.getBalance() < penalty) {
-                    participant.setBalance(0L);
-                } else {
-                    participant.setBalance(participant.getBalance() - penalty);
-                }
-                userRepository.save(participant);
-            }
-        }
-        // Decrease owner balance if learn together
-        AppUser owner = call.getOwner();
-        if (call.getIsLearnTogether()) {
-            owner.setBalance(owner.getBalance() - call.getPost().getPrice() * CallConstants.OWNER_LEARN_TOGETHER_PRICE_PERCENTAGE);
-        } else {
-            // Add revenue to owner
-            owner.setBalance(owner.getBalance() + ownerRevenue);
+        // Mark call as completed, conditionally so a call is never settled twice
+        if (callRepository.finishCall(callId) == 0) {
+            throw new RuntimeException("Call is not active or not in progress");
         }
-        userRepository.save(owner);
+
+        // Owner revenue, learn-together cost and no-show penalties in two bulk updates
+        settlementEngine.settle(call, joinedUserIds);
+        publishSkillActivity(callId, SkillActivity.CALL_COMPLETED);
     }
 
     @Transactional
@@ -280,41 +333,28 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             call.setIsActive(false);
             callRepository.save(call);
         }
+        openCallService.refresh(calls.stream().map(Call::getId).toList());
     }
 
-    /*public List<CallDetailsDTO> getAvailableCalls(Long userId) {
-        AppUser user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        return callRepository.findByStatusAndCurrentParticipantsLessThanMaxParticipants()
-                .stream()
-                .map(call -> convertToCallDetailsDTO(call, user))
-                .collect(Collectors.toList());
-    }*/
+    // Counted by SkillPopularityAggregator once the transaction commits
+    private void publishSkillActivity(Long callId, SkillActivity activity) {
+        callRepository.findSkillIdById(callId)
+                .ifPresent(skillId -> eventPublisher.publishEvent(new SkillActivityEvent(skillId, activity)));
+    }
 
     private Integer calculateParticipantPrice(Post post, boolean isLearnTogether) {
         return isLearnTogether ? (int) (post.getSkill().getMarketValue() * 0.5) : post.getSkill().getMarketValue();
     }
 
-    @Scheduled(fixedRate = 60000) // Run every minute
+    // Runs in its own transaction per call, see CallCompletionScheduler
     @Transactional
-    public void autoCompleteCalls() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Call> inProgressCalls = callRepository.findByStatusAndIsActiveTrue(CallStatus.IN_PROGRESS);
-
-        for (Call call : inProgressCalls) {
-            // Check if call duration has passed
-            LocalDateTime callEndTime = call.getScheduledTime().plusMinutes(CallConstants.DEFAULT_CALL_DURATION_MINUTES);
-            if (now.isAfter(callEndTime)) {
-                // Get list of participants who joined (in this case, all participants since we can't track actual joins)
-                List<Long> joinedUserIds = call.getParticipants().stream()
-                        .map(AppUser::getId)
-                        .collect(Collectors.toList());
-
-                // Complete the call
-                completeCall(call.getId(), joinedUserIds);
-            }
+    public boolean completeDueCall(Long callId) {
+        if (callRepository.lockInProgressCall(callId).isEmpty()) {
+            return false;
         }
+        // Actual joins are not tracked, so every participant counts as joined
+        completeCall(callId, callRepository.findParticipantIds(callId));
+        return true;
     }
 
     @Transactional
@@ -343,24 +383,26 @@ public class CallService implements IService<CreateCallDTO, GetCallDTO, UpdateCa
             call.setParticipantPrice(post.getPrice().intValue());
         }
         
-        // Create Zoom meeting
-        ZoomService.ZoomMeetingInfo zoomMeetingInfo = zoomService.createMeeting(
-            "BrainSwap Session",
-            call.getScheduledTime(),
-            call.getMaxParticipants()
-        );
-        
-        // Set Zoom meeting details
-        call.setZoomJoinUrl(zoomMeetingInfo.getJoinUrl());
-        call.setZoomMeetingId(zoomMeetingInfo.getMeetingId());
-        call.setZoomPassword(zoomMeetingInfo.getPassword());
-        call.setZoomHostKey(zoomMeetingInfo.getHostKey());
-        
-        // Save the call
-        return callMapper.toDTO(callRepository.save(call));
+        // The Zoom meeting is created in the background once this transaction commits
+        call.setZoomStatus(ZoomProvisioningStatus.PENDING);
+        Call saved = callRepository.save(call);
+        openCallService.refresh(saved.getId());
+        eventPublisher.publishEvent(new CallsCreatedEvent(List.of(saved.getId())));
+        return callMapper.toDTO(saved);
     }
 
+    @Transactional(readOnly = true)
     public List<GetCallDTO> getAllByParticipantId(Long participantId) {
         return callMapper.toDTO(callRepository.findAllByParticipantId(participantId));
     }
-}
+
+    @Transactional(readOnly = true)
+    public List<CallSummaryDTO> getSummariesByParticipantId(Long participantId) {
+        return callRepository.findSummariesByParticipantId(participantId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CallProvisioningDTO> getProvisioningByPostId(Long postId) {
+        return callRepository.findProvisioningByPostId(postId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.CallConstants;
+import com.FoRS.BrainSwap_backend.utils.constants.LedgerReason;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns a completed call into ledger entries: one set-based insert for every no-show and one
+ * entry for the owner, whatever the number of participants.
+ */
+@Component
+@RequiredArgsConstructor
+public class CallSettlementEngine {
+    private final CallRepository callRepository;
+    private final BalanceService balanceService;
+
+    public record Settlement(Long ownerId, long ownerDelta, LedgerReason ownerReason, List<Long> noShowIds, long penalty) {}
+
+    public Settlement settle(Call call, Collection<Long> joinedUserIds) {
+        Settlement settlement = plan(call, callRepository.findParticipantIds(call.getId()), joinedUserIds);
+        balanceService.chargeNoShows(call.getId(), settlement.noShowIds(), settlement.penalty());
+        if (settlement.ownerDelta() != 0) {
+            balanceService.recordForCall(settlement.ownerId(), settlement.ownerDelta(), settlement.ownerReason(), call.getId());
+        }
+        return settlement;
+    }
+
+    static Settlement plan(Call call, List<Long> participantIds, Collection<Long> joinedUserIds) {
+        Set<Long> joined = new HashSet<>(joinedUserIds);
+        int participantPrice = call.getParticipantPrice();
+        int teachingRevenuePerUser = (int) Math.ceil(participantPrice * CallConstants.TEACHING_REVENUE_PERCENTAGE / 100.0);
+        int penalty = (int) Math.ceil(participantPrice * CallConstants.NO_SHOW_PENALTY_PERCENTAGE / 100.0);
+
+        // Joined users were already charged when the call started, no-shows pay the penalty
+        int ownerRevenue = 0;
+        List<Long> noShowIds = new ArrayList<>();
+        for (Long participantId : participantIds) {
+            if (joined.contains(participantId)) {
+                if (!call.getIsLearnTogether()) {
+                    ownerRevenue += teachingRevenuePerUser;
+                }
+            } else {
+                noShowIds.add(participantId);
+            }
+        }
+
+        // Decrease owner balance if learn together, otherwise pay out the revenue
+        long ownerDelta = call.getIsLearnTogether()
+                ? -(call.getPost().getPrice() * CallConstants.OWNER_LEARN_TOGETHER_PRICE_PERCENTAGE)
+                : ownerRevenue;
+        LedgerReason ownerReason = call.getIsLearnTogether() ? LedgerReason.LEARN_TOGETHER_COST : LedgerReason.TEACHING_REVENUE;
+        return new Settlement(call.getOwner().getId(), ownerDelta, ownerReason, noShowIds, penalty);
+    }
+}
@@ -0,0 +1,121 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs periodic jobs on one node of the cluster at a time using leases stored in scheduled_job_lease.
+ * A node takes the lease with a conditional update, holds it for at most lockAtMostFor in case it dies
+ * mid-run, and on completion keeps it for at least lockAtLeastFor so other nodes skip the same tick.
+ * Both are measured on the database clock.
+ */
+@Service
+public class JobLockService {
+    private final JobLeaseRepository jobLeaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    public JobLockService(JobLeaseRepository jobLeaseRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${scheduling.node-id:}") String nodeId) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    /**
+     * Runs the job if this node can take its lease, otherwise returns false without running it.
+     */
+    public boolean runExclusively(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        JobState state = jobs.computeIfAbsent(jobName, this::register);
+        if (jobLeaseRepository.acquire(jobName, nodeId, lockAtMostFor.toMillis()) == 0) {
+            state.skipped.increment();
+            jobLeaseRepository.findById(jobName).ifPresent(lease -> {
+                state.owned = nodeId.equals(lease.getLockedBy());
+                state.lastFinishedAt = lease.getLastFinishedAt();
+            });
+            return false;
+        }
+
+        state.owned = true;
+        long start = System.nanoTime();
+        try {
+            job.run();
+        } finally {
+            state.duration.record(Duration.ofNanos(System.nanoTime() - start));
+            jobLeaseRepository.release(jobName, nodeId, lockAtLeastFor.toMillis());
+            state.lastFinishedAt = LocalDateTime.now();
+        }
+        return true;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private JobState register(String jobName) {
+        jobLeaseRepository.createIfMissing(jobName);
+        JobState state = new JobState(
+                Timer.builder("scheduled.job.duration")
+                        .description("Run time of a scheduled job on this node")
+                        .tag("job", jobName)
+                        .register(meterRegistry),
+                Counter.builder("scheduled.job.skipped")
+                        .description("Runs skipped because another node held the lease")
+                        .tag("job", jobName)
+                        .register(meterRegistry)
+        );
+        Gauge.builder("scheduled.job.owner", state, s -> s.owned ? 1 : 0)
+                .description("1 while this node holds or last held the job's lease")
+                .tag("job", jobName)
+                .tag("node", nodeId)
+                .register(meterRegistry);
+        Gauge.builder("scheduled.job.lag", state, JobState::lagSeconds)
+                .description("Seconds since the job last finished on any node")
+                .tag("job", jobName)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return state;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static final class JobState {
+        private final Timer duration;
+        private final Counter skipped;
+        private volatile boolean owned;
+        private volatile LocalDateTime lastFinishedAt;
+
+        private JobState(Timer duration, Counter skipped) {
+            this.duration = duration;
+            this.skipped = skipped;
+        }
+
+        private double lagSeconds() {
+            LocalDateTime finished = lastFinishedAt;
+            return finished == null ? 0 : Duration.between(finished, LocalDateTime.now()).toMillis() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.repository.OpenCallRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.PageConstants;
+import com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the open_call availability index in step with calls and answers discovery queries from it.
+ */
+@Service
+@RequiredArgsConstructor
+public class OpenCallService {
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+
+    private final OpenCallRepository openCallRepository;
+
+    // Called from every CallService write that touches status, activity, seats, time or price
+    @Transactional
+    public void refresh(Long callId) {
+        refresh(List.of(callId));
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> callIds) {
+        if (callIds.isEmpty()) {
+            return;
+        }
+        openCallRepository.removeCalls(callIds);
+        openCallRepository.insertOpenCalls(callIds);
+    }
+
+    @Transactional
+    public void remove(Long callId) {
+        openCallRepository.removeCalls(List.of(callId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OpenCallDTO> findOpenCalls(Long skillId, LocalDateTime from, LocalDateTime to, Integer size) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_WINDOW_DAYS);
+        PageRequest page = PageRequest.of(0, resolvePageSize(size));
+        if (skillId == null) {
+            return openCallRepository.findStartingBetween(start, end, page);
+        }
+        return openCallRepository.findBySkillStartingBetween(skillId, start, end, page);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0)
+            return PageConstants.DEFAULT_PAGE_SIZE;
+        return Math.min(size, PageConstants.MAX_PAGE_SIZE);
+    }
+}
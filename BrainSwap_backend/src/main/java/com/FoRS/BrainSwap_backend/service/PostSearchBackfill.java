@@ -0,0 +1,39 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Fills in search_vector for posts written before V6__search.sql, one short transaction per batch so
+ * only the rows of the current batch are locked. Only runs where Flyway owns the schema, the column
+ * does not exist anywhere else.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.flyway.enabled", matchIfMissing = true)
+public class PostSearchBackfill {
+    private static final String JOB_NAME = "post-search-backfill";
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofHours(1);
+
+    private final SearchService searchService;
+    private final JobLockService jobLockService;
+
+    @Value("${search.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        jobLockService.runExclusively(JOB_NAME, LOCK_AT_MOST_FOR, Duration.ZERO, () -> {
+            Long lastId = 0L;
+            while (lastId != null) {
+                lastId = searchService.indexUnsearchablePosts(lastId, batchSize);
+            }
+        });
+    }
+}
@@ -1,27 +1,35 @@
 package com.FoRS.BrainSwap_backend.service;
 
 import com.FoRS.BrainSwap_backend.domain.Post;
-import com.FoRS.BrainSwap_backend.domain.Skill;
 import com.FoRS.BrainSwap_backend.domain.AppUser;
 import com.FoRS.BrainSwap_backend.domain.Call;
 import com.FoRS.BrainSwap_backend.repository.PostRepository;
 import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.PageConstants;
 import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.constants.SkillActivity;
+import com.FoRS.BrainSwap_backend.utils.dto.CursorPageDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.CreatePostDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.GetPostDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostFeedFilterDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostSummaryDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.post.UpdatePostDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.GetSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.event.SkillActivityEvent;
 import com.FoRS.BrainSwap_backend.utils.mapper.PostMapper;
-import com.FoRS.BrainSwap_backend.utils.mapper.SkillMapper;
 import com.FoRS.BrainSwap_backend.utils.mapper.CallMapper;
 import com.FoRS.BrainSwap_backend.utils.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -30,11 +38,10 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
     private final SkillService skillService;
     private final UserRepository userRepository;
     private final CallService callService;
+    private final ApplicationEventPublisher eventPublisher;
     @Autowired
     private final PostMapper postMapper;
     @Autowired
-    private final SkillMapper skillMapper;
-    @Autowired
     private final CallMapper callMapper;
 
     @Override
@@ -47,10 +54,11 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
                 .orElseThrow(() -> new RuntimeException("User not found"));
         entity.setOwner(owner);
         
-        // Set the skill and its market value as the post's price
-        Skill skill = skillMapper.toEntity(skillService.findById(dto.skillId()).orElseThrow());
-        entity.setSkill(skill);
-        entity.setPrice(skill.getMarketValue());
+        // Set the skill and its market value as the post's price, both come from the skill cache
+        GetSkillDTO skill = skillService.findById(dto.skillId())
+                .orElseThrow(() -> new ResourceNotFoundException("Skill not found"));
+        entity.setSkill(skillService.getReference(skill.id()));
+        entity.setPrice(skill.marketValue());
         
         // Create and set calls
         List<Call> calls = new ArrayList<>();
@@ -63,9 +71,9 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
                 
                 // Calculate prices based on post type
                 if (dto.type() == PostType.LEARN_TOGETHER) {
-                    call.setParticipantPrice((int) (skill.getMarketValue() * 0.50));
+                    call.setParticipantPrice((int) (skill.marketValue() * 0.50));
                 } else {
-                    call.setParticipantPrice(skill.getMarketValue());
+                    call.setParticipantPrice(skill.marketValue());
                 }
                 
                 calls.add(call);
@@ -80,11 +88,13 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
         if (!calls.isEmpty()) {
             callService.saveAll(calls);
         }
+        eventPublisher.publishEvent(new SkillActivityEvent(skill.id(), SkillActivity.POST_CREATED));
         
         return postMapper.toDTO(savedPost);
     }
 
     @Override
+    @Transactional
     public GetPostDTO update(UpdatePostDTO dto) {
         Post entity = postRepository.findById(dto.id()).orElseThrow(()->new RuntimeException("Post not found"));
         if(dto.title() != null && !dto.title().isEmpty())
@@ -96,19 +106,75 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GetPostDTO> findAll() {
         //return getPostDTOConverter.createFromEntities(postRepository.findAll());
         return postMapper.toDTO(postRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<GetPostDTO> getFeed(PostFeedFilterDTO filter, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Ask for one extra row to know whether another page exists without a count query
+        List<Post> posts = postRepository.findFeedPage(
+                cursor,
+                filter.skillId(),
+                filter.type(),
+                filter.learningType(),
+                filter.isActive(),
+                filter.minPrice(),
+                filter.maxPrice(),
+                PageRequest.of(0, pageSize + 1)
+        );
+        return toPage(posts, pageSize, Post::getId, postMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostSummaryDTO> getFeedSummary(PostFeedFilterDTO filter, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<PostSummaryDTO> posts = postRepository.findFeedSummaryPage(
+                cursor,
+                filter.skillId(),
+                filter.type(),
+                filter.learningType(),
+                filter.isActive(),
+                filter.minPrice(),
+                filter.maxPrice(),
+                PageRequest.of(0, pageSize + 1)
+        );
+        return toPage(posts, pageSize, PostSummaryDTO::id, Function.identity());
+    }
+
+    private <T, R> CursorPageDTO<R> toPage(List<T> rows, int pageSize, Function<T, Long> idOf, Function<List<T>, List<R>> mapper) {
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = idOf.apply(rows.get(pageSize - 1));
+        }
+        return new CursorPageDTO<>(mapper.apply(rows), nextCursor);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0)
+            return PageConstants.DEFAULT_PAGE_SIZE;
+        return Math.min(size, PageConstants.MAX_PAGE_SIZE);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<GetPostDTO> findById(Long id) {
-        Optional<Post> entity = postRepository.findById(id);
+        Optional<Post> entity = postRepository.findDetailedById(id);
         //return entity.map(getPostDTOConverter::createFromEntity);
         return entity.map(postMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<PostSummaryDTO> findSummaryById(Long id) {
+        return postRepository.findSummaryById(id);
+    }
+
     @Override
+    @Transactional
     public void deleteById(Long id) {
         postRepository.deleteById(id);
     }
@@ -122,13 +188,25 @@ public class PostService implements IService<CreatePostDTO, GetPostDTO, UpdatePo
         callService.deactivateCallsForPost(postId);
     }
 
+    @Transactional(readOnly = true)
     public List<GetPostDTO> getByOwner(String owner) {
         AppUser user = userRepository.findByUsername(owner)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         return postMapper.toDTO(postRepository.findByOwner(user));
     }
 
+    @Transactional(readOnly = true)
     public List<GetPostDTO> getByOwnerId(Long id) {
         return postMapper.toDTO(postRepository.findByOwnerId(id));
     }
+
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getSummariesByOwner(String owner) {
+        return postRepository.findSummariesByOwnerUsername(owner);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getSummariesByOwnerId(Long id) {
+        return postRepository.findSummariesByOwnerId(id);
+    }
 }
\ No newline at end of file
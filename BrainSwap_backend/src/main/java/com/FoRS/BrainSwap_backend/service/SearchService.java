@@ -0,0 +1,99 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.repository.PostRepository;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.PageConstants;
+import com.FoRS.BrainSwap_backend.utils.constants.SkillActivity;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostSearchResultDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.SkillSearchResultDTO;
+import com.FoRS.BrainSwap_backend.utils.event.SkillActivityEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Ranked post search and skill lookup backed by the full-text and trigram indexes from V6__search.sql
+ * and V7__search_indexes.sql. Post rows index themselves: a trigger rewrites search_vector whenever
+ * the title or description is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+    private static final int AUTOCOMPLETE_SIZE = 10;
+
+    private final PostRepository postRepository;
+    private final SkillRepository skillRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<PostSearchResultDTO> searchPosts(String text, Integer page, Integer size) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        PageRequest pageRequest = PageRequest.of(page == null || page < 0 ? 0 : page, resolvePageSize(size));
+        List<PostSearchResultDTO> results = postRepository.search(text.trim(), pageRequest)
+                .stream()
+                .map(hit -> new PostSearchResultDTO(hit.getId(), hit.getTitle(), hit.getDescription(),
+                        hit.getSkillId(), hit.getPrice(), hit.getRank()))
+                .toList();
+        // One search counts once, for the skill of its best match, paging through it does not count again
+        if (pageRequest.getPageNumber() == 0 && !results.isEmpty()) {
+            eventPublisher.publishEvent(new SkillActivityEvent(results.get(0).skillId(), SkillActivity.SEARCHED));
+        }
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SkillSearchResultDTO> searchSkills(String text, Integer size) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<SkillSearchResultDTO> results = toSkillResults(skillRepository.searchByName(text.trim(), PageRequest.of(0, resolvePageSize(size))));
+        if (!results.isEmpty()) {
+            eventPublisher.publishEvent(new SkillActivityEvent(results.get(0).id(), SkillActivity.SEARCHED));
+        }
+        return results;
+    }
+
+    // Not counted as activity: it fires per keystroke and already ranks by popularity
+    @Transactional(readOnly = true)
+    public List<SkillSearchResultDTO> autocompleteSkills(String prefix, Integer size) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int limit = size == null || size <= 0 ? AUTOCOMPLETE_SIZE : Math.min(size, PageConstants.MAX_PAGE_SIZE);
+        return toSkillResults(skillRepository.findByNamePrefix(escapeLike(prefix.trim()), PageRequest.of(0, limit)));
+    }
+
+    // Indexes the next batch of posts written before search existed, returns the last id handled or null when done
+    @Transactional
+    public Long indexUnsearchablePosts(long afterId, int batchSize) {
+        List<Long> ids = postRepository.findIdsWithoutSearchVector(afterId, batchSize);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        postRepository.indexForSearch(ids);
+        return ids.get(ids.size() - 1);
+    }
+
+    private static List<SkillSearchResultDTO> toSkillResults(List<SkillRepository.SearchHit> hits) {
+        return hits.stream()
+                .map(hit -> new SkillSearchResultDTO(hit.getId(), hit.getName(), hit.getPopularity(), hit.getScore()))
+                .toList();
+    }
+
+    // A typed % or _ is matched literally instead of acting as a wildcard
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0)
+            return PageConstants.DEFAULT_PAGE_SIZE;
+        return Math.min(size, PageConstants.MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,92 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.utils.dto.skill.GetSkillDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache of the skill catalog, keyed by id and by name. Holds immutable DTOs only; SkillService
+ * writes through it once a save, update or delete commits, and the TTL bounds staleness from other nodes.
+ */
+@Component
+public class SkillCatalogCache {
+    private static final String CATALOG_KEY = "all";
+
+    private final Cache<Long, GetSkillDTO> byId;
+    private final Cache<String, GetSkillDTO> byName;
+    private final Cache<String, List<GetSkillDTO>> catalog;
+
+    public SkillCatalogCache(MeterRegistry meterRegistry,
+                             @Value("${skills.cache.max-size:5000}") long maxSize,
+                             @Value("${skills.cache.ttl-seconds:600}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byName = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.catalog = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size per cache
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "skills.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "skills.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, catalog, "skills.catalog");
+    }
+
+    public Optional<GetSkillDTO> getById(Long id, Function<Long, Optional<GetSkillDTO>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    // Names missing from the cache are loaded in one call, names that do not exist are left out
+    public Map<String, GetSkillDTO> getByNames(Collection<String> names,
+                                               Function<Set<? extends String>, Map<String, GetSkillDTO>> loader) {
+        return byName.getAll(names, loader);
+    }
+
+    public Map<String, GetSkillDTO> getPresentByNames(Collection<String> names) {
+        return byName.getAllPresent(names);
+    }
+
+    public List<GetSkillDTO> getAll(Supplier<List<GetSkillDTO>> loader) {
+        return catalog.get(CATALOG_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    public void put(GetSkillDTO skill) {
+        byId.put(skill.id(), skill);
+        byName.put(skill.name(), skill);
+        catalog.invalidateAll();
+    }
+
+    public void putAll(Collection<GetSkillDTO> skills) {
+        skills.forEach(skill -> {
+            byId.put(skill.id(), skill);
+            byName.put(skill.name(), skill);
+        });
+        catalog.invalidateAll();
+    }
+
+    public void evict(GetSkillDTO skill) {
+        byId.invalidate(skill.id());
+        byName.invalidate(skill.name());
+        catalog.invalidateAll();
+    }
+
+    public void evictId(Long id) {
+        GetSkillDTO cached = byId.getIfPresent(id);
+        if (cached != null) {
+            evict(cached);
+        } else {
+            byId.invalidate(id);
+            catalog.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.utils.event.SkillActivityEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts skill activity in memory and adds it to skill.popularity in periodic batches, so a hot skill
+ * costs one row update per flush instead of one per post, seat or search.
+ * Counts not yet flushed are lost if the node dies, popularity is a ranking signal and tolerates that.
+ */
+@Component
+public class SkillPopularityAggregator {
+    private final SkillService skillService;
+    private final int batchSize;
+    // One adder per skill that has ever seen activity, kept for good so no increment races a removal
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public SkillPopularityAggregator(SkillService skillService,
+                                     @Value("${skills.popularity.batch-size:500}") int batchSize) {
+        this.skillService = skillService;
+        this.batchSize = batchSize;
+    }
+
+    // Only committed activity counts, a rolled back post or seat never reaches the counters
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSkillActivity(SkillActivityEvent event) {
+        record(event.skillId(), event.activity().getWeight());
+    }
+
+    public void record(Long skillId, long weight) {
+        if (skillId != null) {
+            pending.computeIfAbsent(skillId, id -> new LongAdder()).add(weight);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${skills.popularity.flush-interval-ms:10000}",
+            initialDelayString = "${skills.popularity.flush-interval-ms:10000}")
+    public void flush() {
+        // Sorted by id, each batch then locks its rows in the same order on every node
+        TreeMap<Long, Integer> deltas = new TreeMap<>();
+        pending.forEach((skillId, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta != 0) {
+                deltas.put(skillId, (int) Math.min(delta, Integer.MAX_VALUE));
+            }
+        });
+
+        Map<Long, Integer> batch = new TreeMap<>();
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            batch.put(delta.getKey(), delta.getValue());
+            if (batch.size() == batchSize) {
+                apply(batch);
+                batch = new TreeMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+    }
+
+    // A failed batch goes back into the counters and is retried on the next flush
+    private void apply(Map<Long, Integer> batch) {
+        try {
+            skillService.addPopularity(batch);
+        } catch (RuntimeException e) {
+            System.out.println("Skill popularity flush of " + batch.size() + " skills failed: " + e.getMessage());
+            batch.forEach(this::record);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -9,9 +9,18 @@ import com.FoRS.BrainSwap_backend.utils.mapper.SkillMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,16 +28,22 @@ public class SkillService implements IService<CreateSkillDTO, GetSkillDTO, Updat
     private final SkillRepository skillRepository;
     @Autowired
     private final SkillMapper skillMapper;
+    private final SkillCatalogCache skillCache;
 
     @Override
+    @Transactional
     public GetSkillDTO save(CreateSkillDTO dto) {
         Skill entity = skillMapper.toEntity(dto);
-        return skillMapper.toDTO(skillRepository.save(entity));
+        GetSkillDTO saved = skillMapper.toDTO(skillRepository.save(entity));
+        afterCommit(() -> skillCache.put(saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public GetSkillDTO update(UpdateSkillAdminDTO dto) {
         Skill entity = skillRepository.findById(dto.id()).orElseThrow(()->new RuntimeException("Skill not found"));
+        GetSkillDTO previous = skillMapper.toDTO(entity);
         if(dto.name() != null && !dto.name().isEmpty())
             entity.setName(dto.name());
         if(dto.popularity() != null)
@@ -37,50 +52,109 @@ public class SkillService implements IService<CreateSkillDTO, GetSkillDTO, Updat
             entity.setMarketValue(dto.marketValue());
         if(dto.predefined() != null)
             entity.setPredefined(dto.predefined());
-        return skillMapper.toDTO(skillRepository.save(entity));
+        GetSkillDTO updated = skillMapper.toDTO(skillRepository.save(entity));
+        // Evict under the old name in case the skill was renamed
+        afterCommit(() -> {
+            skillCache.evict(previous);
+            skillCache.put(updated);
+        });
+        return updated;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GetSkillDTO> findAll() {
-        return skillMapper.toDTO(skillRepository.findAll());
+        return skillCache.getAll(() -> skillMapper.toDTO(skillRepository.findAll()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<GetSkillDTO> findById(Long id) {
-        Optional<Skill> entity = skillRepository.findById(id);
-        return entity.map(skillMapper::toDTO);
+        return skillCache.getById(id, key -> skillRepository.findById(key).map(skillMapper::toDTO));
+    }
+
+    // Proxy for associating a skill whose existence is already known, no select is issued
+    public Skill getReference(Long id) {
+        return skillRepository.getReferenceById(id);
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         skillRepository.deleteById(id);
+        afterCommit(() -> skillCache.evictId(id));
     }
 
+    @Transactional(readOnly = true)
     public List<Skill> findAllById(List<Long> ids){
         return skillRepository.findAllById(ids);
     }
 
+    // Detached skills built from the cache, enough to set associations by id
+    @Transactional(readOnly = true)
     public List<Skill> findByNameIn(List<String> names){
-        return skillRepository.findByNameIn(names);
+        return findCachedByNameIn(names).values()
+                .stream()
+                .map(skillMapper::toEntity)
+                .toList();
     }
 
-    public void addCustomSkills(List<String> skills){
-        List<Skill> existing = skillRepository.findByNameIn(skills);
-        List<String> existingNames = existing.stream()
-                .map(Skill::getName)
-                .toList();
+    private Map<String, GetSkillDTO> findCachedByNameIn(List<String> names) {
+        return skillCache.getByNames(names, missing -> skillRepository.findByNameIn(List.copyOf(missing))
+                .stream()
+                .map(skillMapper::toDTO)
+                .collect(Collectors.toMap(GetSkillDTO::name, Function.identity())));
+    }
+
+    // Resolves names to skills, creating the missing ones as custom skills with a single upsert
+    @Transactional
+    public List<Skill> addCustomSkills(List<String> skills){
+        LinkedHashSet<String> names = new LinkedHashSet<>(skills);
+        Map<String, GetSkillDTO> resolved = new HashMap<>(skillCache.getPresentByNames(names));
+        names.removeAll(resolved.keySet());
 
-        List<Skill> newSkills = skills.stream()
-                .filter(name -> !existingNames.contains(name))
-                .map(name -> {
-                    Skill s = new Skill();
-                    s.setName(name);
-                    return s;
-                })
+        if (!names.isEmpty()) {
+            List<GetSkillDTO> upserted = skillMapper.toDTO(skillRepository.upsertByNames(names.toArray(String[]::new)));
+            // Names inserted by a concurrent registration are committed by now, a fresh read sees them
+            if (upserted.size() < names.size()) {
+                upserted = new ArrayList<>(upserted);
+                upserted.forEach(skill -> names.remove(skill.name()));
+                upserted.addAll(skillMapper.toDTO(skillRepository.findByNameIn(names)));
+            }
+            List<GetSkillDTO> created = upserted;
+            afterCommit(() -> skillCache.putAll(created));
+            upserted.forEach(skill -> resolved.put(skill.name(), skill));
+        }
+
+        return resolved.values()
+                .stream()
+                .map(skillMapper::toEntity)
                 .toList();
+    }
+
+    // Applies flushed popularity deltas with one UPDATE per distinct delta. Cached skills catch up within the cache TTL
+    @Transactional
+    public void addPopularity(Map<Long, Integer> deltas) {
+        skillRepository.lockSkills(deltas.keySet());
+        deltas.entrySet()
+                .stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((delta, ids) -> skillRepository.addPopularity(ids, delta));
+    }
 
-        if (!newSkills.isEmpty()) {
-            skillRepository.saveAll(newSkills);
+    // Every cache change waits for the commit: ids of skills inserted in a transaction that rolls back
+    // must never reach the cache, and a rolled back rename or delete must not drop the cached skill
+    private void afterCommit(Runnable cacheUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheUpdate.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheUpdate.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -3,17 +3,22 @@ package com.FoRS.BrainSwap_backend.service;
 import com.FoRS.BrainSwap_backend.domain.AppUser;
 import com.FoRS.BrainSwap_backend.domain.Skill;
 import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.security.JwtPrincipalCache;
 import com.FoRS.BrainSwap_backend.security.SecurityUtil;
 import com.FoRS.BrainSwap_backend.utils.dto.skill.BasicSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.user.BalanceDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.CreateUserDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.GetUserDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.UpdateUserDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.user.UserSummaryDTO;
 import com.FoRS.BrainSwap_backend.utils.exception.ResourceNotFoundException;
 import com.FoRS.BrainSwap_backend.utils.mapper.AppUserMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,66 +33,97 @@ public class UserService implements IService<CreateUserDTO, GetUserDTO, UpdateUs
     private final AppUserMapper appUserMapper;
     @Autowired
     private final SecurityUtil securityUtil;
+    private final JwtPrincipalCache principalCache;
+    private final BalanceService balanceService;
 
     @Override
+    @Transactional
     public GetUserDTO save(CreateUserDTO dto) {
         AppUser entity = appUserMapper.toEntity(dto);
         List<String> skillNames = dto.skills()
                 .stream()
                 .map(BasicSkillDTO::name)
                 .toList();
-        skillService.addCustomSkills(skillNames);
-        List<Skill> skills = skillService.findByNameIn(skillNames);
+        List<Skill> skills = skillService.addCustomSkills(skillNames);
         entity.setSkills(skills);
         System.out.println(entity.getPassword());
         return appUserMapper.toDTO(userRepository.save(entity));
     }
 
     @Override
+    @Transactional
     public GetUserDTO update(UpdateUserDTO dto) {
         Long id = securityUtil.getCurrentUserId();
         AppUser entity = userRepository.findById(id).orElseThrow(()->new RuntimeException("User Not Found"));
-        if(dto.username() != null && !dto.username().isEmpty())
+        boolean credentialsChanged = false;
+        if(dto.username() != null && !dto.username().isEmpty() && !dto.username().equals(entity.getUsername())) {
             entity.setUsername(dto.username());
+            credentialsChanged = true;
+        }
         if(dto.email() != null && !dto.email().isEmpty())
             entity.setEmail(dto.email());
-        if(dto.password() != null && !dto.password().isEmpty())
+        if(dto.password() != null && !dto.password().isEmpty() && !dto.password().equals(entity.getPassword())) {
             entity.setPassword(dto.password());
+            credentialsChanged = true;
+        }
+        if(credentialsChanged) {
+            // Rejects every token issued before, on every node, once their cached principals expire.
+            // The role is only set at registration, whatever changes it later has to bump the version too
+            entity.setTokenVersion(entity.getTokenVersion() + 1);
+            invalidateAfterCommit(id);
+        }
         if(dto.balance() != null)
-            entity.setBalance(dto.balance());
+            entity.setCurrentBalance(balanceService.adjustTo(id, dto.balance()));
 
         List<String> skillNames = dto.skills()
                 .stream()
                 .map(BasicSkillDTO::name)
                 .toList();
-        skillService.addCustomSkills(skillNames);
-        List<Skill> skills = skillService.findByNameIn(skillNames);
+        List<Skill> skills = skillService.addCustomSkills(skillNames);
         entity.setSkills(skills);
         return appUserMapper.toDTO(userRepository.save(entity));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GetUserDTO> findAll() {
         return appUserMapper.toDTO(userRepository.findAll());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<GetUserDTO> findById(Long id) {
-        Optional<AppUser> entity = userRepository.findById(id);
+        Optional<AppUser> entity = userRepository.findDetailedById(id);
         return entity.map(appUserMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> findAllSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserSummaryDTO> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
+    }
+
     @Override
+    @Transactional
     public void deleteById(Long id) {
         userRepository.deleteById(id);
+        invalidateAfterCommit(id);
     }
 
+    // Read right after a registration or password change by AuthController, so it stays on the primary
+    // instead of a replica that may not have the write yet
+    @Transactional
     public Optional<AppUser> findByUsernameEntity(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public Optional<GetUserDTO> findByUsername(String username) {
-        return userRepository.findByUsername(username).map(appUserMapper::toDTO);
+        return userRepository.findDetailedByUsername(username).map(appUserMapper::toDTO);
     }
 
     @Transactional
@@ -102,10 +138,28 @@ public class UserService implements IService<CreateUserDTO, GetUserDTO, UpdateUs
         userRepository.save(user);
     }
 
-    public GetUserDTO addBalance(Long id, Long balance){
-        AppUser appUser = userRepository.findById(id).orElseThrow();
-        appUser.setBalance(appUser.getBalance() + balance);
-        userRepository.save(appUser);
-        return appUserMapper.toDTO(appUser);
+    public BalanceDTO getBalance(Long id) {
+        return new BalanceDTO(id, balanceService.getBalance(id));
+    }
+
+    public BalanceDTO addBalance(Long id, Long balance, String idempotencyKey){
+        if (balance == null) {
+            throw new IllegalArgumentException("Top-up amount is required");
+        }
+        return new BalanceDTO(id, balanceService.topUp(id, balance, idempotencyKey));
+    }
+
+    // Evicting before the commit would let a request re-cache the principal against the old token version
+    private void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principalCache.invalidateUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.invalidateUser(userId);
+            }
+        });
     }
-}
\ No newline at end of file
+}
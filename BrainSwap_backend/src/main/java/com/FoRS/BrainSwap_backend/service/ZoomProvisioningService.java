@@ -0,0 +1,202 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
+import com.FoRS.BrainSwap_backend.utils.event.CallsCreatedEvent;
+import com.FoRS.BrainSwap_backend.utils.resilience.CircuitBreaker;
+import com.FoRS.BrainSwap_backend.utils.resilience.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates Zoom meetings for calls in the background so call creation never waits on Zoom.
+ * Calls are saved as PENDING, provisioned on virtual threads after the creating transaction
+ * commits, and patched with the meeting details once Zoom answers. A worker claims the call
+ * (PROVISIONING) before calling Zoom, so the creating node and the sweep never both create a meeting.
+ */
+@Service
+public class ZoomProvisioningService {
+    private static final String SWEEP_JOB_NAME = "zoom-provisioning-sweep";
+    private static final Duration SWEEP_LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+    private static final Duration SWEEP_LOCK_AT_LEAST_FOR = Duration.ofMinutes(1);
+
+    private final ZoomService zoomService;
+    private final CallRepository callRepository;
+    private final JobLockService jobLockService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Duration claimTimeout;
+
+    public ZoomProvisioningService(ZoomService zoomService,
+                                   CallRepository callRepository,
+                                   JobLockService jobLockService,
+                                   @Value("${zoom.provisioning.max-concurrency:8}") int maxConcurrency,
+                                   @Value("${zoom.provisioning.rate-limit-per-second:10}") double rateLimitPerSecond,
+                                   @Value("${zoom.provisioning.max-attempts:5}") int maxAttempts,
+                                   @Value("${zoom.provisioning.initial-backoff-ms:500}") long initialBackoffMillis,
+                                   @Value("${zoom.provisioning.max-backoff-ms:30000}") long maxBackoffMillis,
+                                   @Value("${zoom.provisioning.breaker.failure-threshold:5}") int failureThreshold,
+                                   @Value("${zoom.provisioning.breaker.open-ms:60000}") long breakerOpenMillis,
+                                   @Value("${zoom.provisioning.claim-timeout-ms:900000}") long claimTimeoutMillis) {
+        this.zoomService = zoomService;
+        this.callRepository = callRepository;
+        this.jobLockService = jobLockService;
+        this.permits = new Semaphore(maxConcurrency);
+        this.rateLimiter = new RateLimiter(rateLimitPerSecond);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(breakerOpenMillis));
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+    }
+
+    // Runs after commit so the workers always see the saved calls
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCallsCreated(CallsCreatedEvent event) {
+        provisionAll(event.callIds());
+    }
+
+    // Fans out one worker per call, Zoom traffic is still bounded by the rate limiter and semaphore.
+    // Each worker records its own outcome on the call, nobody waits for the batch
+    public void provisionAll(List<Long> callIds) {
+        callIds.forEach(this::submit);
+    }
+
+    public CompletableFuture<ZoomProvisioningStatus> submit(Long callId) {
+        if (!inFlight.add(callId)) {
+            return CompletableFuture.completedFuture(ZoomProvisioningStatus.PENDING);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return provision(callId);
+            } finally {
+                inFlight.remove(callId);
+            }
+        }, executor);
+    }
+
+    // Picks up calls whose provisioning failed or was lost on a restart, one node per sweep. Calls another
+    // worker is still provisioning are submitted too, the claim turns them away until their claim goes stale
+    @Scheduled(fixedDelayString = "${zoom.provisioning.sweep-interval-ms:300000}")
+    public void retryUnprovisioned() {
+        jobLockService.runExclusively(SWEEP_JOB_NAME, SWEEP_LOCK_AT_MOST_FOR, SWEEP_LOCK_AT_LEAST_FOR, () -> {
+            List<Long> callIds = callRepository.findIdsByZoomStatusIn(
+                    List.of(ZoomProvisioningStatus.PENDING, ZoomProvisioningStatus.FAILED, ZoomProvisioningStatus.PROVISIONING),
+                    CallStatus.SCHEDULED
+            );
+            provisionAll(callIds);
+        });
+    }
+
+    private ZoomProvisioningStatus provision(Long callId) {
+        // Millisecond precision so the claim compares equal once stored in a timestamp column
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        int claimed = callRepository.claimForProvisioning(callId, claimedAt, claimedAt.minus(claimTimeout));
+        Optional<Call> found = callRepository.findById(callId);
+        if (claimed == 0 || found.isEmpty()) {
+            // Already provisioned, removed, or another worker holds the claim
+            return found.map(Call::getZoomStatus).orElse(ZoomProvisioningStatus.FAILED);
+        }
+        Call call = found.get();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (circuitBreaker.allowRequest()) {
+                try {
+                    ZoomService.ZoomMeetingInfo meeting = createMeeting(call);
+                    circuitBreaker.recordSuccess();
+                    int updated = callRepository.updateZoomMeeting(
+                            callId,
+                            claimedAt,
+                            meeting.getJoinUrl(),
+                            meeting.getMeetingId(),
+                            meeting.getPassword(),
+                            meeting.getHostKey()
+                    );
+                    if (updated == 0) {
+                        // The claim went stale and another worker took the call over, its meeting is the one kept
+                        discard(meeting);
+                        return callRepository.findById(callId).map(Call::getZoomStatus).orElse(ZoomProvisioningStatus.FAILED);
+                    }
+                    return ZoomProvisioningStatus.PROVISIONED;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    circuitBreaker.recordFailure();
+                }
+            }
+            if (attempt < maxAttempts && !sleep(backoff(attempt))) {
+                break;
+            }
+        }
+
+        callRepository.failZoomProvisioning(callId, claimedAt);
+        return ZoomProvisioningStatus.FAILED;
+    }
+
+    // The semaphore is only held for the HTTP round-trip, never while backing off or rate limited
+    private ZoomService.ZoomMeetingInfo createMeeting(Call call) throws InterruptedException {
+        rateLimiter.acquire();
+        permits.acquire();
+        try {
+            return zoomService.createMeeting("BrainSwap Session", call.getScheduledTime(), call.getMaxParticipants());
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Best effort, a meeting left behind is only an unused entry in the Zoom account
+    private void discard(ZoomService.ZoomMeetingInfo meeting) {
+        try {
+            zoomService.deleteMeeting(meeting.getMeetingId());
+        } catch (RuntimeException e) {
+            // nothing else to undo
+        }
+    }
+
+    // Exponential backoff, jittered between half and the full delay
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
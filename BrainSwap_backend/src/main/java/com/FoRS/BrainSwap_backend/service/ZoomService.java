@@ -9,12 +9,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,19 +21,10 @@ public class ZoomService {
     private final RestTemplate restTemplate;
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
+    private final ZoomTokenManager tokenManager;
 
-    @Value("${zoom.client.id}")
-    private String clientId;
-
-    @Value("${zoom.client.secret}")
-    private String clientSecret;
-
-    @Value("${zoom.account.id}")
-    private String accountId;
-
-    private static final String ZOOM_API_BASE_URL = "https://api.zoom.us/v2";
-    private String accessToken;
-    private LocalDateTime tokenExpiry;
+    @Value("${zoom.api.base-url:https://api.zoom.us/v2}")
+    private String apiBaseUrl;
 
     public static class ZoomMeetingInfo {
         private final String joinUrl;
@@ -57,41 +45,9 @@ public class ZoomService {
         public String getHostKey() { return hostKey; }
     }
 
-    private void refreshAccessTokenIfNeeded() {
-        if (accessToken == null || tokenExpiry == null || LocalDateTime.now().isAfter(tokenExpiry)) {
-            String authHeader = Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes());
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.set("Authorization", "Basic " + authHeader);
-
-            MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-            body.add("grant_type", "account_credentials");
-            body.add("account_id", accountId);
-
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                "https://zoom.us/oauth/token",
-                request,
-                Map.class
-            );
-
-            if (response.getBody() == null) {
-                throw new RuntimeException("Failed to get Zoom access token");
-            }
-
-            accessToken = (String) response.getBody().get("access_token");
-            Integer expiresIn = (Integer) response.getBody().get("expires_in");
-            tokenExpiry = LocalDateTime.now().plusSeconds(expiresIn - 300); // Refresh 5 minutes before expiry
-        }
-    }
-
     public ZoomMeetingInfo createMeeting(String topic, LocalDateTime startTime, int maxParticipants) {
-        refreshAccessTokenIfNeeded();
-
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
+        headers.setBearerAuth(tokenManager.getAccessToken());
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         Map<String, Object> meetingDetails = new HashMap<>();
@@ -114,7 +70,7 @@ public class ZoomService {
 
         try {
             ResponseEntity<Map> response = restTemplate.postForEntity(
-                    ZOOM_API_BASE_URL + "/users/me/meetings",
+                    apiBaseUrl + "/users/me/meetings",
                     request,
                     Map.class
             );
@@ -138,4 +94,15 @@ public class ZoomService {
             throw new RuntimeException("Failed to create Zoom meeting: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+
+    public void deleteMeeting(String meetingId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenManager.getAccessToken());
+
+        try {
+            restTemplate.exchange(apiBaseUrl + "/meetings/" + meetingId, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete Zoom meeting: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the Server-to-Server OAuth token used for Zoom API calls.
+ * Reads are a single volatile load; once the token is inside its refresh margin only one request
+ * goes to Zoom and every concurrent caller waits on that same request.
+ */
+@Component
+public class ZoomTokenManager {
+    private record ZoomToken(String value, Instant refreshAt, Instant expiresAt) {}
+
+    private final RestTemplate restTemplate;
+    private final AtomicReference<ZoomToken> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<ZoomToken>> inFlight = new AtomicReference<>();
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+
+    @Value("${zoom.client.id}")
+    private String clientId;
+
+    @Value("${zoom.client.secret}")
+    private String clientSecret;
+
+    @Value("${zoom.account.id}")
+    private String accountId;
+
+    @Value("${zoom.oauth.token-url:https://zoom.us/oauth/token}")
+    private String tokenUrl;
+
+    @Value("${zoom.oauth.refresh-margin-seconds:300}")
+    private long refreshMarginSeconds;
+
+    public ZoomTokenManager(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.refreshTimer = Timer.builder("zoom.token.refresh")
+                .description("Time spent fetching a Zoom OAuth token")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("zoom.token.refresh.failures")
+                .description("Zoom OAuth token requests that failed")
+                .register(meterRegistry);
+    }
+
+    public String getAccessToken() {
+        ZoomToken token = current.get();
+        Instant now = Instant.now();
+        if (token != null && now.isBefore(token.refreshAt())) {
+            return token.value();
+        }
+        try {
+            return refreshSingleFlight().value();
+        } catch (RuntimeException e) {
+            // Inside the margin the old token still works, only fail once it has really expired
+            if (token != null && now.isBefore(token.expiresAt())) {
+                return token.value();
+            }
+            throw e;
+        }
+    }
+
+    // Refreshes ahead of expiry so request threads normally never wait on the token endpoint
+    @Scheduled(fixedDelayString = "${zoom.oauth.refresh-check-ms:30000}")
+    public void refreshIfDue() {
+        ZoomToken token = current.get();
+        if (token == null || Instant.now().isBefore(token.refreshAt())) {
+            return;
+        }
+        try {
+            refreshSingleFlight();
+        } catch (RuntimeException e) {
+            System.out.println("Background Zoom token refresh failed: " + e.getMessage());
+        }
+    }
+
+    private ZoomToken refreshSingleFlight() {
+        while (true) {
+            CompletableFuture<ZoomToken> pending = inFlight.get();
+            if (pending != null) {
+                return await(pending);
+            }
+            CompletableFuture<ZoomToken> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                try {
+                    // A refresh that finished after the caller read the token must not be repeated
+                    ZoomToken fresh = current.get();
+                    ZoomToken token = fresh != null && Instant.now().isBefore(fresh.refreshAt()) ? fresh : fetchToken();
+                    current.set(token);
+                    mine.complete(token);
+                } catch (RuntimeException e) {
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.compareAndSet(mine, null);
+                }
+                return await(mine);
+            }
+        }
+    }
+
+    private ZoomToken fetchToken() {
+        Timer.Sample sample = Timer.start();
+        try {
+            String authHeader = Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes());
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+            headers.set("Authorization", "Basic " + authHeader);
+
+            MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+            body.add("grant_type", "account_credentials");
+            body.add("account_id", accountId);
+
+            ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, new HttpEntity<>(body, headers), Map.class);
+            if (response.getBody() == null) {
+                throw new RuntimeException("Failed to get Zoom access token");
+            }
+
+            String accessToken = (String) response.getBody().get("access_token");
+            Integer expiresIn = (Integer) response.getBody().get("expires_in");
+            Instant expiresAt = Instant.now().plusSeconds(expiresIn);
+            Instant refreshAt = expiresAt.minus(Duration.ofSeconds(Math.min(refreshMarginSeconds, expiresIn / 2)));
+            return new ZoomToken(accessToken, refreshAt, expiresAt);
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
+        } finally {
+            sample.stop(refreshTimer);
+        }
+    }
+
+    private static ZoomToken await(CompletableFuture<ZoomToken> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.FoRS.BrainSwap_backend.utils.constants;
+
+public enum LedgerReason {
+    TOP_UP,
+    ADJUSTMENT,             // balance set directly through a user update
+    CALL_CHARGE,            // participant price taken when the owner starts the call
+    NO_SHOW_PENALTY,
+    TEACHING_REVENUE,
+    LEARN_TOGETHER_COST
+}
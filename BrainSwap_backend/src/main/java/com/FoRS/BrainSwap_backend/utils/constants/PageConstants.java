@@ -0,0 +1,6 @@
+package com.FoRS.BrainSwap_backend.utils.constants;
+
+public class PageConstants {
+    public static final int DEFAULT_PAGE_SIZE = 20; // items returned when the client does not ask for a size
+    public static final int MAX_PAGE_SIZE = 100;    // upper bound so a single request never loads an unbounded page
+}
@@ -0,0 +1,19 @@
+package com.FoRS.BrainSwap_backend.utils.constants;
+
+// Weight is how much one occurrence adds to the skill's popularity
+public enum SkillActivity {
+    SEARCHED(1),            // skill of the top result of a post or skill search
+    POST_CREATED(2),
+    CALL_SCHEDULED(3),      // per seat taken
+    CALL_COMPLETED(5);
+
+    private final int weight;
+
+    SkillActivity(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,15 @@
+package com.FoRS.BrainSwap_backend.utils.constants;
+
+public enum ViewMode {
+    SUMMARY,    // scalar columns only, read straight from a projection query
+    FULL;       // entity graph mapped through MapStruct
+
+    public static ViewMode from(String value) {
+        for (ViewMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown view mode: " + value);
+    }
+}
@@ -0,0 +1,8 @@
+package com.FoRS.BrainSwap_backend.utils.constants;
+
+public enum ZoomProvisioningStatus {
+    PENDING,        // Call is saved, the Zoom meeting is being created in the background
+    PROVISIONING,   // A worker claimed the call and is talking to Zoom, see Call.zoomClaimedAt
+    PROVISIONED,    // Zoom meeting details are stored on the call
+    FAILED          // All attempts failed, the periodic sweep will try again
+}
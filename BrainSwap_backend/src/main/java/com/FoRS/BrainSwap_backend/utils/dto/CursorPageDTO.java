@@ -0,0 +1,7 @@
+package com.FoRS.BrainSwap_backend.utils.dto;
+
+import java.util.List;
+
+// nextCursor is null when there are no more items after this page
+public record CursorPageDTO<T>(List<T> items, Long nextCursor) {
+}
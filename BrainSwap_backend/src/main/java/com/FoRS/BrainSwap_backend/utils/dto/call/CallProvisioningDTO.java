@@ -0,0 +1,9 @@
+package com.FoRS.BrainSwap_backend.utils.dto.call;
+
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
+
+public record CallProvisioningDTO(
+    Long callId,
+    ZoomProvisioningStatus zoomStatus,
+    String zoomJoinUrl
+) {}
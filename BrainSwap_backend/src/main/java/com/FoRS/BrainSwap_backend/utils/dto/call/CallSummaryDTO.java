@@ -0,0 +1,18 @@
+package com.FoRS.BrainSwap_backend.utils.dto.call;
+
+import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+
+import java.time.LocalDateTime;
+
+public record CallSummaryDTO(
+    Long id,
+    Long postId,
+    Long ownerId,
+    LocalDateTime scheduledTime,
+    Integer maxParticipants,
+    Integer currentParticipants,
+    Integer participantPrice,
+    CallStatus status,
+    Boolean isLearnTogether,
+    Boolean isActive
+) {}
@@ -1,6 +1,7 @@
 package com.FoRS.BrainSwap_backend.utils.dto.call;
 
 import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
 import com.FoRS.BrainSwap_backend.utils.dto.user.BasicUserDTO;
 
 import java.time.LocalDateTime;
@@ -20,5 +21,6 @@ public record GetCallDTO(
     String zoomJoinUrl,
     String zoomMeetingId,
     String zoomPassword,
-    String zoomHostKey
+    String zoomHostKey,
+    ZoomProvisioningStatus zoomStatus
 ) {}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.FoRS.BrainSwap_backend.utils.dto.call;
+
+import java.time.LocalDateTime;
+
+public record OpenCallDTO(
+    Long callId,
+    Long postId,
+    Long skillId,
+    Long ownerId,
+    LocalDateTime scheduledTime,
+    Integer freeSeats,
+    Integer participantPrice,
+    Boolean isLearnTogether
+) {}
@@ -0,0 +1,7 @@
+package com.FoRS.BrainSwap_backend.utils.dto.call;
+
+public record WaitlistPositionDTO(
+    Long callId,
+    Long userId,
+    Long position
+) {}
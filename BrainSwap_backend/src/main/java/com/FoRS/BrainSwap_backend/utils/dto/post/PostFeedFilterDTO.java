@@ -0,0 +1,13 @@
+package com.FoRS.BrainSwap_backend.utils.dto.post;
+
+import com.FoRS.BrainSwap_backend.utils.constants.LearningType;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+
+public record PostFeedFilterDTO(
+    Long skillId,
+    PostType type,
+    LearningType learningType,
+    Boolean isActive,
+    Integer minPrice,
+    Integer maxPrice
+) {}
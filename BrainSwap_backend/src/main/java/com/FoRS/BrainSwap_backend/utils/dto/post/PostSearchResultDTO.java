@@ -0,0 +1,10 @@
+package com.FoRS.BrainSwap_backend.utils.dto.post;
+
+public record PostSearchResultDTO(
+    Long id,
+    String title,
+    String description,
+    Long skillId,
+    Integer price,
+    Double rank
+) {}
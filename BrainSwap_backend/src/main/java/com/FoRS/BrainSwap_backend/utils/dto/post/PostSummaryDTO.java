@@ -0,0 +1,16 @@
+package com.FoRS.BrainSwap_backend.utils.dto.post;
+
+import com.FoRS.BrainSwap_backend.utils.constants.LearningType;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+
+public record PostSummaryDTO (
+    Long id,
+    String title,
+    Long ownerId,
+    String ownerUsername,
+    Long skillId,
+    Integer price,
+    LearningType learningType,
+    PostType type,
+    Boolean isActive
+) {}
@@ -0,0 +1,4 @@
+package com.FoRS.BrainSwap_backend.utils.dto.skill;
+
+public record SkillSearchResultDTO(Long id, String name, Integer popularity, Double score) {
+}
@@ -0,0 +1,4 @@
+package com.FoRS.BrainSwap_backend.utils.dto.user;
+
+public record BalanceDTO (Long userId, Long balance) {
+}
@@ -0,0 +1,6 @@
+package com.FoRS.BrainSwap_backend.utils.event;
+
+import java.util.List;
+
+public record CallsCreatedEvent(List<Long> callIds) {
+}
@@ -0,0 +1,6 @@
+package com.FoRS.BrainSwap_backend.utils.event;
+
+import com.FoRS.BrainSwap_backend.utils.constants.SkillActivity;
+
+public record SkillActivityEvent(Long skillId, SkillActivity activity) {
+}
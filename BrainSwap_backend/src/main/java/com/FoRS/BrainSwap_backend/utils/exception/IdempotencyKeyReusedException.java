@@ -0,0 +1,7 @@
+package com.FoRS.BrainSwap_backend.utils.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
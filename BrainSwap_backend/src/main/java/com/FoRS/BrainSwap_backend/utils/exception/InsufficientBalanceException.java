@@ -0,0 +1,16 @@
+package com.FoRS.BrainSwap_backend.utils.exception;
+
+import java.util.List;
+
+public class InsufficientBalanceException extends RuntimeException{
+    private final List<String> usernames;
+
+    public InsufficientBalanceException(List<String> usernames){
+        super("Participants with insufficient balance: " + String.join(", ", usernames));
+        this.usernames = usernames;
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+}
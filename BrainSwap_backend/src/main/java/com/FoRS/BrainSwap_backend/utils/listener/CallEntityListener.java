@@ -1,7 +1,9 @@
 package com.FoRS.BrainSwap_backend.utils.listener;
 
 import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.utils.constants.CallConstants;
 import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 
@@ -16,10 +18,20 @@ public class CallEntityListener {
         if(call.getParticipants() == null){
             call.setParticipants(new ArrayList<>());
         }
+        if(call.getZoomStatus() == null){
+            call.setZoomStatus(ZoomProvisioningStatus.PENDING);
+        }
+        updateEndTime(call);
     }
 
     @PreUpdate
     public void preUpdate(Call call) {
-        // Add any pre-update logic here if needed
+        updateEndTime(call);
+    }
+
+    private void updateEndTime(Call call) {
+        if (call.getScheduledTime() != null) {
+            call.setEndTime(call.getScheduledTime().plusMinutes(CallConstants.DEFAULT_CALL_DURATION_MINUTES));
+        }
     }
 } 
\ No newline at end of file
@@ -19,5 +19,8 @@ public class UserEntityListener {
         if(user.getRole() == null){
             user.setRole(Role.USER);
         }
+        if (user.getTokenVersion() == null) {
+            user.setTokenVersion(0);
+        }
     }
 }
\ No newline at end of file
@@ -7,12 +7,14 @@ import com.FoRS.BrainSwap_backend.utils.dto.user.CreateUserDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.GetUserDTO;
 import com.FoRS.BrainSwap_backend.utils.dto.user.UpdateUserDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface AppUserMapper {
+    @Mapping(target = "balance", source = "currentBalance")
     GetUserDTO toDTO(AppUser appUser);
 
     public static UpdateUserDTO toUpdateDTO(AppUser appUser){
@@ -0,0 +1,29 @@
+package com.FoRS.BrainSwap_backend.utils.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces callers evenly so no more than the configured number of permits are handed out per second.
+ * Each caller reserves the next free slot and sleeps until it arrives.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeSlot);
+            nextFreeSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+-- Schema as generated by hibernate.ddl-auto=update before Flyway took over. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and only pick up the migrations after it,
+-- so everything added since lives in V2 and later.
+
+CREATE TABLE app_user (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username           varchar(255) NOT NULL UNIQUE,
+    email              varchar(255) NOT NULL UNIQUE,
+    password           varchar(255),
+    balance            bigint,
+    current_call_id    bigint,
+    role               varchar(255) CHECK (role IN ('USER', 'ADMIN')),
+    zoom_access_token  varchar(255),
+    zoom_refresh_token varchar(255),
+    zoom_token_expiry  timestamp(6)
+);
+
+CREATE TABLE skill (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         varchar(255) NOT NULL UNIQUE,
+    popularity   integer,
+    market_value integer,
+    predefined   boolean
+);
+
+CREATE TABLE post (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         varchar(255) NOT NULL,
+    description   varchar(255),
+    owner_id      bigint       NOT NULL REFERENCES app_user (id),
+    skill_id      bigint       NOT NULL REFERENCES skill (id),
+    price         integer,
+    learning_type varchar(255) CHECK (learning_type IN ('VISUAL', 'AUDITORY', 'PHYSICAL', 'SOCIAL')),
+    type          varchar(255) NOT NULL CHECK (type IN ('TEACHING', 'LEARN_TOGETHER')),
+    is_active     boolean      NOT NULL
+);
+
+CREATE TABLE call (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id              bigint       NOT NULL REFERENCES post (id),
+    scheduled_time       timestamp(6) NOT NULL,
+    max_participants     integer      NOT NULL,
+    current_participants integer      NOT NULL,
+    owner_id             bigint       NOT NULL REFERENCES app_user (id),
+    participant_price    integer      NOT NULL,
+    status               varchar(255) CHECK (status IN ('SCHEDULED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    is_learn_together    boolean      NOT NULL,
+    zoom_join_url        varchar(255),
+    zoom_meeting_id      varchar(255),
+    zoom_password        varchar(255),
+    zoom_host_key        varchar(255),
+    is_active            boolean      NOT NULL
+);
+
+ALTER TABLE app_user ADD CONSTRAINT fk_app_user_current_call FOREIGN KEY (current_call_id) REFERENCES call (id);
+
+CREATE TABLE user_skill (
+    user_id  bigint NOT NULL REFERENCES app_user (id),
+    skill_id bigint NOT NULL REFERENCES skill (id)
+);
+
+CREATE TABLE call_participants (
+    call_id bigint NOT NULL REFERENCES call (id),
+    user_id bigint NOT NULL REFERENCES app_user (id)
+);
+
+-- AppUser.scheduledCalls was a join table of its own before it became the inverse of call_participants
+CREATE TABLE app_user_scheduled_calls (
+    app_user_id        bigint NOT NULL REFERENCES app_user (id),
+    scheduled_calls_id bigint NOT NULL UNIQUE REFERENCES call (id)
+);
@@ -0,0 +1,23 @@
+-- Ids of the four main tables move from identity columns to sequences handed out in blocks of 50 (pooled-lo).
+-- Each sequence starts after the ids already in its table unless it is already handing out blocks past them.
+
+CREATE SEQUENCE IF NOT EXISTS app_user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS call_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS post_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS skill_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('app_user_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM app_user) m, app_user_seq s
+WHERE NOT s.is_called OR m.max_id >= s.last_value + 50;
+
+SELECT setval('call_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM call) m, call_seq s
+WHERE NOT s.is_called OR m.max_id >= s.last_value + 50;
+
+SELECT setval('post_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM post) m, post_seq s
+WHERE NOT s.is_called OR m.max_id >= s.last_value + 50;
+
+SELECT setval('skill_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM skill) m, skill_seq s
+WHERE NOT s.is_called OR m.max_id >= s.last_value + 50;
@@ -0,0 +1,66 @@
+-- Everything the call, balance and scheduling work added on top of the baseline schema
+
+-- Calls end a default duration after they start (CallConstants.DEFAULT_CALL_DURATION_MINUTES),
+-- CallEntityListener fills it in for calls saved from now on
+ALTER TABLE call ADD COLUMN end_time timestamp(6);
+UPDATE call SET end_time = scheduled_time + interval '120 minutes';
+
+-- Calls from before background provisioning got their meeting while being created, the ones left
+-- without a meeting are picked up by the provisioning sweep
+ALTER TABLE call ADD COLUMN zoom_status varchar(255);
+UPDATE call SET zoom_status = CASE WHEN zoom_join_url IS NOT NULL THEN 'PROVISIONED' ELSE 'FAILED' END;
+
+-- A user's scheduled calls are read from call_participants now, nothing maps the old join table
+DROP TABLE IF EXISTS app_user_scheduled_calls;
+
+-- One row per participant, which INSERT ... ON CONFLICT DO NOTHING relies on. Duplicates the old
+-- load-and-add membership could leave are removed first and the seat counters recounted
+DELETE FROM call_participants a USING call_participants b
+WHERE a.ctid > b.ctid AND a.call_id = b.call_id AND a.user_id = b.user_id;
+ALTER TABLE call_participants ADD CONSTRAINT uk_call_participants_call_user UNIQUE (call_id, user_id);
+CREATE INDEX idx_call_participants_user ON call_participants (user_id);
+
+UPDATE call c SET current_participants = p.participants
+FROM (SELECT call_id, COUNT(*) AS participants FROM call_participants GROUP BY call_id) p
+WHERE p.call_id = c.id AND c.current_participants <> p.participants;
+
+CREATE TABLE call_waitlist (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    call_id    bigint       NOT NULL REFERENCES call (id),
+    user_id    bigint       NOT NULL REFERENCES app_user (id),
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_call_waitlist_call_user UNIQUE (call_id, user_id)
+);
+
+CREATE INDEX idx_call_waitlist_call_queue ON call_waitlist (call_id, id);
+
+-- app_user.balance stays the snapshot, existing balances need no ledger entries
+CREATE TABLE balance_snapshot (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at    timestamp(6) NOT NULL,
+    max_ledger_id bigint       NOT NULL,
+    entries       integer
+);
+
+CREATE TABLE balance_ledger (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         bigint       NOT NULL,
+    amount          bigint       NOT NULL,
+    reason          varchar(255) NOT NULL,
+    call_id         bigint,
+    idempotency_key varchar(255),
+    created_at      timestamp(6) NOT NULL,
+    snapshot_id     bigint,
+    CONSTRAINT uk_balance_ledger_user_idempotency_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_balance_ledger_user_snapshot ON balance_ledger (user_id, snapshot_id);
+CREATE INDEX idx_balance_ledger_snapshot ON balance_ledger (snapshot_id);
+
+CREATE TABLE scheduled_job_lease (
+    job_name         varchar(255) NOT NULL PRIMARY KEY,
+    locked_by        varchar(255),
+    locked_until     timestamp(6) NOT NULL,
+    last_started_at  timestamp(6),
+    last_finished_at timestamp(6)
+);
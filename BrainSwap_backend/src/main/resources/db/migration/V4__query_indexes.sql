@@ -0,0 +1,31 @@
+-- One index per hot repository query, built concurrently so writes are not blocked on large tables.
+
+-- PostRepository.findByOwner / findByOwnerId / findSummariesByOwnerId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_owner ON post (owner_id, id);
+
+-- PostRepository.findFeedPage / findFeedSummaryPage filtered by skill, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_skill_feed ON post (skill_id, id DESC);
+
+-- CallRepository.findByPostId / findProvisioningByPostId ordered by start time
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_call_post_scheduled ON call (post_id, scheduled_time);
+
+-- Calls owned by a user, also keeps deletes of users and posts from scanning call
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_call_owner ON call (owner_id);
+
+-- CallRepository.findDueCallIds: only in-progress active calls, ordered by end time, completed calls stay out
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_call_due ON call (end_time)
+    WHERE status = 'IN_PROGRESS' AND is_active;
+
+-- CallRepository.findIdsByZoomStatusIn for the provisioning sweep
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_call_zoom_status ON call (zoom_status, status) WHERE is_active;
+
+-- Profile skills in both directions
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_skill_user ON user_skill (user_id, skill_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_skill_skill ON user_skill (skill_id);
+
+-- Users currently in a call
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_app_user_current_call ON app_user (current_call_id)
+    WHERE current_call_id IS NOT NULL;
+
+-- Ledger entries booked for a call
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_balance_ledger_call ON balance_ledger (call_id) WHERE call_id IS NOT NULL;
@@ -0,0 +1,21 @@
+-- Availability index for call discovery, kept up to date by OpenCallService
+
+CREATE TABLE open_call (
+    call_id           bigint       NOT NULL PRIMARY KEY REFERENCES call (id) ON DELETE CASCADE,
+    post_id           bigint       NOT NULL,
+    skill_id          bigint       NOT NULL,
+    owner_id          bigint       NOT NULL,
+    scheduled_time    timestamp(6) NOT NULL,
+    free_seats        integer      NOT NULL,
+    participant_price integer      NOT NULL,
+    is_learn_together boolean      NOT NULL
+);
+
+CREATE INDEX idx_open_call_skill_time ON open_call (skill_id, scheduled_time);
+CREATE INDEX idx_open_call_time ON open_call (scheduled_time);
+
+INSERT INTO open_call (call_id, post_id, skill_id, owner_id, scheduled_time, free_seats, participant_price, is_learn_together)
+SELECT c.id, c.post_id, p.skill_id, c.owner_id, c.scheduled_time,
+       c.max_participants - c.current_participants, c.participant_price, c.is_learn_together
+FROM call c JOIN post p ON p.id = c.post_id
+WHERE c.status = 'SCHEDULED' AND c.is_active AND c.current_participants < c.max_participants;
@@ -0,0 +1,23 @@
+-- Full-text and typo-tolerant search over posts and skills, see SearchService. The indexes are built
+-- concurrently in V7__search_indexes.sql.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- A nullable column without a default is only a catalog change, post is not rewritten and writes are
+-- held up for no longer than the brief lock it takes. A GENERATED ... STORED column would rewrite every
+-- row under an ACCESS EXCLUSIVE lock
+ALTER TABLE post ADD COLUMN search_vector tsvector;
+
+-- Title matches rank above description matches
+CREATE FUNCTION post_search_vector() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', coalesce(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(NEW.description, '')), 'B');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- New and edited posts are indexed as they are written, older posts by PostSearchBackfill in small batches
+CREATE TRIGGER post_search_vector BEFORE INSERT OR UPDATE OF title, description ON post
+    FOR EACH ROW EXECUTE FUNCTION post_search_vector();
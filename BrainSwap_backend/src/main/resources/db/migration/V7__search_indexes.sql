@@ -0,0 +1,7 @@
+-- Search indexes, built concurrently so writes are not blocked on large tables
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_search ON post USING gin (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_title_trgm ON post USING gin (title gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_skill_name_trgm ON skill USING gin (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_skill_name_prefix ON skill (lower(name) text_pattern_ops);
@@ -0,0 +1,2 @@
+-- Bumped on every credential change, tokens carrying an older version are rejected on all nodes
+ALTER TABLE app_user ADD COLUMN token_version integer NOT NULL DEFAULT 0;
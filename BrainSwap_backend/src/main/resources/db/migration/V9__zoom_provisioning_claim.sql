@@ -0,0 +1,2 @@
+-- Set when a provisioning worker claims a call (zoom_status PROVISIONING), a stale claim can be taken over
+ALTER TABLE call ADD COLUMN zoom_claimed_at timestamp(6);
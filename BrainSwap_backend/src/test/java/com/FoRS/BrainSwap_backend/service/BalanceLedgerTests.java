@@ -0,0 +1,185 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.dto.call.ScheduleCallDTO;
+import com.FoRS.BrainSwap_backend.utils.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Debits, adjustments and snapshot folds against the ledger, one at a time and racing each other.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceLedgerTests {
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Call call;
+
+    @BeforeEach
+    void seed() {
+        call = fixtures.call(fixtures.post(fixtures.user("teacher"), fixtures.skill("Pottery")), 4);
+    }
+
+    @Test
+    void startChargeIsAllOrNothing() {
+        Long funded = participant("funded", 100);
+        Long broke = participant("broke", 5);
+
+        InsufficientBalanceException e = assertThrows(InsufficientBalanceException.class,
+                () -> balanceService.chargeCallParticipants(call.getId(), call.getParticipantPrice()));
+        assertEquals(1, e.getUsernames().size());
+        assertTrue(e.getUsernames().get(0).startsWith("broke"));
+        assertEquals(100, balanceService.getBalance(funded));
+        assertEquals(5, balanceService.getBalance(broke));
+        assertEquals(0, callEntries("CALL_CHARGE"));
+
+        balanceService.adjustTo(broke, 10);
+        balanceService.chargeCallParticipants(call.getId(), call.getParticipantPrice());
+        assertEquals(90, balanceService.getBalance(funded));
+        assertEquals(0, balanceService.getBalance(broke));
+        assertEquals(2, callEntries("CALL_CHARGE"));
+    }
+
+    @Test
+    void noShowPenaltyStopsAtZero() {
+        Long solvent = participant("solvent", 100);
+        Long nearlyBroke = participant("nearly-broke", 4);
+
+        balanceService.chargeNoShows(call.getId(), List.of(solvent, nearlyBroke), 8);
+
+        assertEquals(92, balanceService.getBalance(solvent));
+        assertEquals(0, balanceService.getBalance(nearlyBroke));
+        // Folded into the snapshot the clamped balance is still zero
+        foldEverything();
+        assertEquals(0, userRepository.findById(nearlyBroke).orElseThrow().getBalance());
+    }
+
+    @Test
+    void adjustToRecordsOnlyTheDifference() {
+        Long userId = fixtures.user("adjusted").getId();
+
+        assertEquals(37, balanceService.adjustTo(userId, 37));
+        assertEquals(37, balanceService.getBalance(userId));
+        assertEquals(List.of(37L - 100), adjustments(userId));
+
+        balanceService.adjustTo(userId, 37);
+        assertEquals(1, adjustments(userId).size());
+
+        balanceService.adjustTo(userId, 250);
+        assertEquals(250, balanceService.getBalance(userId));
+        assertEquals(List.of(37L - 100, 250L - 37), adjustments(userId));
+    }
+
+    @Test
+    void foldsRacingCreditsAndDebitsLoseNothingAndNeverDeadlock() throws InterruptedException {
+        int rounds = 300;
+        Long saver = fixtures.user("saver").getId();
+        Long first = participant("first", 100_000);
+        Long second = participant("second", 100_000);
+        long openingSaver = balanceService.getBalance(saver);
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+        ExecutorService folder = Executors.newSingleThreadExecutor();
+        writers.submit(guarded(start, failures, () -> {
+            for (int i = 0; i < rounds; i++) {
+                balanceService.topUp(saver, 1, null);
+            }
+        }));
+        // Funded debits lock both users in id order, whichever order they are passed in
+        writers.submit(guarded(start, failures, () -> {
+            for (int i = 0; i < rounds; i++) {
+                balanceService.chargeNoShows(call.getId(), List.of(second, first), 1);
+            }
+        }));
+        writers.submit(guarded(start, failures, () -> {
+            for (int i = 0; i < rounds; i++) {
+                balanceService.chargeNoShows(call.getId(), List.of(first, second), 1);
+            }
+        }));
+        folder.submit(guarded(start, failures, () -> {
+            while (writing.get()) {
+                balanceService.foldIntoSnapshot(25);
+            }
+        }));
+        start.countDown();
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(120, TimeUnit.SECONDS));
+        writing.set(false);
+        folder.shutdown();
+        assertTrue(folder.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertEquals(openingSaver + rounds, balanceService.getBalance(saver));
+        assertEquals(100_000 - 2 * rounds, balanceService.getBalance(first));
+        assertEquals(100_000 - 2 * rounds, balanceService.getBalance(second));
+
+        // Whatever the folds raced with ends up in the snapshot exactly once
+        foldEverything();
+        assertEquals(openingSaver + rounds, userRepository.findById(saver).orElseThrow().getBalance());
+        assertEquals(100_000 - 2 * rounds, userRepository.findById(first).orElseThrow().getBalance());
+    }
+
+    // A scheduled participant with exactly the given balance
+    private Long participant(String name, long balance) {
+        Long userId = fixtures.user(name).getId();
+        balanceService.adjustTo(userId, balance);
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), userId));
+        return userId;
+    }
+
+    private void foldEverything() {
+        while (balanceService.foldIntoSnapshot(500) > 0) {
+            // keep folding
+        }
+    }
+
+    private long callEntries(String reason) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger WHERE call_id = ? AND reason = ?",
+                Long.class, call.getId(), reason);
+    }
+
+    private List<Long> adjustments(Long userId) {
+        return jdbcTemplate.queryForList("SELECT amount FROM balance_ledger WHERE user_id = ? AND reason = 'ADJUSTMENT' ORDER BY id",
+                Long.class, userId);
+    }
+
+    private static Runnable guarded(CountDownLatch start, Queue<Throwable> failures, Runnable task) {
+        return () -> {
+            try {
+                start.await();
+                task.run();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one user with parallel top-ups and checks every credit lands exactly once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceTopUpTests {
+    private static final int TOP_UPS = 2000;
+
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Long userId;
+    private long openingBalance;
+
+    @BeforeEach
+    void seed() {
+        userId = fixtures.user("saver").getId();
+        openingBalance = balanceService.getBalance(userId);
+    }
+
+    @Test
+    void parallelTopUpsAreNeverLost() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        runInParallel(TOP_UPS, i -> balanceService.topUp(userId, 1, null), failures);
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertEquals(openingBalance + TOP_UPS, balanceService.getBalance(userId));
+
+        // Folding into the snapshot moves the total without changing it
+        while (balanceService.foldIntoSnapshot(500) > 0) {
+            assertEquals(openingBalance + TOP_UPS, balanceService.getBalance(userId));
+        }
+        assertEquals(openingBalance + TOP_UPS, userRepository.findById(userId).orElseThrow().getBalance());
+    }
+
+    @Test
+    void retriesWithTheSameKeyAreCreditedOnce() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        runInParallel(200, i -> balanceService.topUp(userId, 25, "order-" + (i % 4)), failures);
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertEquals(openingBalance + 4 * 25, balanceService.getBalance(userId));
+    }
+
+    @Test
+    void sameKeyWithADifferentAmountIsRejected() {
+        balanceService.topUp(userId, 25, "order-1");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> balanceService.topUp(userId, 30, "order-1"));
+        assertEquals(openingBalance + 25, balanceService.getBalance(userId));
+        // The key belongs to this user only
+        Long other = fixtures.user("other-saver").getId();
+        long otherBalance = balanceService.getBalance(other);
+        assertEquals(otherBalance + 30, balanceService.topUp(other, 30, "order-1"));
+    }
+
+    private interface Task {
+        void run(int i);
+    }
+
+    private static void runInParallel(int count, Task task, Queue<Throwable> failures) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    task.run(n);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(120, TimeUnit.SECONDS));
+    }
+}
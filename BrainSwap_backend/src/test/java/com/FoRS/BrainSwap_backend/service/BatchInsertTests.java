@@ -0,0 +1,53 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserts 10k rows in one transaction and checks they go out as JDBC batches with pooled ids.
+ * InsertBenchmarkTests compares the timing with identity ids on PostgreSQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchInsertTests {
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private SkillRepository skillRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void tenThousandInsertsAreBatched() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        String prefix = TestFixtures.unique("Bulk");
+        List<Skill> skills = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            skills.add(Skill.builder().name(prefix + " " + i).marketValue(10).build());
+        }
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> skillRepository.saveAll(skills));
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // One statement per batch of 50 plus one sequence call per block of 50, instead of one per row
+        assertTrue(statistics.getPrepareStatementCount() <= 2L * ROWS / 50 + 10,
+                () -> "Inserts were not batched: " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(ROWS, skills.stream().map(Skill::getId).distinct().count());
+    }
+}
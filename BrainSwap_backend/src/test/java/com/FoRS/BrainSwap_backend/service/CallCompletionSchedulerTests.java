@@ -0,0 +1,163 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.repository.JobLeaseRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the auto-completion job against calls whose end time has passed, in batches of two, with failing
+ * calls and calls another node holds locked.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CallCompletionSchedulerTests {
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Post post;
+    private CallRepository calls;
+    private CallService completions;
+
+    @BeforeEach
+    void setUp() {
+        post = fixtures.post(fixtures.user("teacher"), fixtures.skill("Welding"));
+        calls = mock(CallRepository.class, delegatesTo(callRepository));
+        completions = mock(CallService.class);
+        doAnswer(invocation -> callService.completeDueCall(invocation.getArgument(0))).when(completions).completeDueCall(anyLong());
+        // The context's own scheduler ran at startup and may still hold the lease
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void dueCallsAreDrainedInBatches() {
+        List<Long> due = dueCalls(5);
+
+        node("node-a").completeDueCalls();
+
+        due.forEach(callId -> assertEquals(CallStatus.COMPLETED, status(callId)));
+        // Two full batches, then the short one that ends the drain
+        verify(calls, atLeast(3)).findDueCallIds(any(LocalDateTime.class), eq(PageRequest.of(0, BATCH_SIZE)));
+        verify(completions, times(5)).completeDueCall(anyLong());
+    }
+
+    @Test
+    void failingCallIsRolledBackWithoutTakingTheOthersWithIt() {
+        List<Long> due = dueCalls(3);
+        Long failing = due.get(1);
+        // Stubbed with doAnswer so the answer set up above is not run while recording
+        doAnswer(invocation -> transactionTemplate.execute(status -> {
+            // Completes the call inside the transaction, then fails before it commits
+            callService.completeDueCall(failing);
+            throw new IllegalStateException("settlement failed");
+        })).when(completions).completeDueCall(failing);
+
+        node("node-a").completeDueCalls();
+
+        assertEquals(CallStatus.COMPLETED, status(due.get(0)));
+        assertEquals(CallStatus.IN_PROGRESS, status(failing));
+        assertEquals(CallStatus.COMPLETED, status(due.get(2)));
+
+        // The next run picks the failed call up again
+        jobLeaseRepository.deleteAll();
+        reset(completions);
+        doAnswer(invocation -> callService.completeDueCall(invocation.getArgument(0))).when(completions).completeDueCall(anyLong());
+        node("node-b").completeDueCalls();
+        assertEquals(CallStatus.COMPLETED, status(failing));
+    }
+
+    @Test
+    void callLockedByAnotherNodeIsSkippedInsteadOfWaitedFor() throws Exception {
+        List<Long> due = dueCalls(3);
+        Long locked = due.get(0);
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another node in the middle of completing the call
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(callRepository.lockInProgressCall(locked).isPresent());
+            lockHeld.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertTrue(lockHeld.await(10, TimeUnit.SECONDS));
+
+            long started = System.nanoTime();
+            node("node-a").completeDueCalls();
+            // Far below the database's lock timeout, nothing waited on the held row
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+
+            assertEquals(CallStatus.IN_PROGRESS, status(locked));
+            assertEquals(CallStatus.COMPLETED, status(due.get(1)));
+            assertEquals(CallStatus.COMPLETED, status(due.get(2)));
+        } finally {
+            release.countDown();
+            otherNode.get(10, TimeUnit.SECONDS);
+        }
+
+        jobLeaseRepository.deleteAll();
+        node("node-b").completeDueCalls();
+        assertEquals(CallStatus.COMPLETED, status(locked));
+    }
+
+    // A scheduler of its own per simulated node, sharing the lease table and the database
+    private CallCompletionScheduler node(String nodeName) {
+        JobLockService jobLockService = new JobLockService(jobLeaseRepository, new SimpleMeterRegistry(), nodeName);
+        CallCompletionScheduler scheduler = new CallCompletionScheduler(calls, completions, jobLockService);
+        ReflectionTestUtils.setField(scheduler, "batchSize", BATCH_SIZE);
+        return scheduler;
+    }
+
+    // In progress and past their end time, the earliest ending first
+    private List<Long> dueCalls(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Call call = fixtures.call(post, 2);
+            call.setScheduledTime(LocalDateTime.now().minusHours(3).plusMinutes(i));
+            call.setStatus(CallStatus.IN_PROGRESS);
+            ids.add(callRepository.save(call).getId());
+        }
+        return ids;
+    }
+
+    private CallStatus status(Long callId) {
+        return callRepository.findById(callId).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,112 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.utils.constants.LedgerReason;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins CallSettlementEngine.plan to the formulas completeCall used before settlement went set-based.
+ */
+class CallSettlementEngineTests {
+    private static final Long OWNER_ID = 1L;
+
+    @Test
+    void teachingRevenueIsRoundedUpPerJoinedParticipant() {
+        // 75% of 7 is 5.25, each joined participant pays the owner 6
+        CallSettlementEngine.Settlement settlement = CallSettlementEngine.plan(call(7, false, 10), List.of(11L, 12L, 13L), List.of(11L, 12L, 13L));
+
+        assertEquals(OWNER_ID, settlement.ownerId());
+        assertEquals(18, settlement.ownerDelta());
+        assertEquals(LedgerReason.TEACHING_REVENUE, settlement.ownerReason());
+        assertTrue(settlement.noShowIds().isEmpty());
+    }
+
+    @Test
+    void noShowsPayTheRoundedUpPenaltyAndEarnTheOwnerNothing() {
+        CallSettlementEngine.Settlement settlement = CallSettlementEngine.plan(call(7, false, 10), List.of(11L, 12L, 13L), List.of(12L));
+
+        assertEquals(6, settlement.ownerDelta());
+        assertEquals(List.of(11L, 13L), settlement.noShowIds());
+        assertEquals(6, settlement.penalty());
+    }
+
+    @Test
+    void learnTogetherOwnerIsDebitedWhoeverJoined() {
+        // The owner pays 66 times the post price, joined participants earn them nothing
+        CallSettlementEngine.Settlement settlement = CallSettlementEngine.plan(call(5, true, 10), List.of(11L, 12L), List.of(11L));
+
+        assertEquals(-660, settlement.ownerDelta());
+        assertEquals(LedgerReason.LEARN_TOGETHER_COST, settlement.ownerReason());
+        assertEquals(List.of(12L), settlement.noShowIds());
+        assertEquals(4, settlement.penalty());
+    }
+
+    @Test
+    void joinedIdsOfNonParticipantsAreIgnored() {
+        CallSettlementEngine.Settlement settlement = CallSettlementEngine.plan(call(10, false, 10), List.of(11L), List.of(11L, 99L));
+
+        assertEquals(8, settlement.ownerDelta());
+        assertTrue(settlement.noShowIds().isEmpty());
+    }
+
+    @Test
+    void everyMixOfJoinedAndNoShowMatchesTheOriginalFormulas() {
+        List<Long> participants = List.of(11L, 12L, 13L, 14L);
+        for (int price = 0; price <= 40; price++) {
+            for (boolean learnTogether : new boolean[]{false, true}) {
+                // Every subset of the participants as the joined ones
+                for (int mask = 0; mask < 1 << participants.size(); mask++) {
+                    List<Long> joined = new ArrayList<>();
+                    for (int i = 0; i < participants.size(); i++) {
+                        if ((mask & 1 << i) != 0) {
+                            joined.add(participants.get(i));
+                        }
+                    }
+                    Call call = call(price, learnTogether, 2 * price);
+                    CallSettlementEngine.Settlement settlement = CallSettlementEngine.plan(call, participants, joined);
+
+                    String mix = "price " + price + ", learn together " + learnTogether + ", joined " + joined;
+                    assertEquals(originalOwnerDelta(call, participants, joined), settlement.ownerDelta(), mix);
+                    assertEquals(participants.size() - joined.size(), settlement.noShowIds().size(), mix);
+                    settlement.noShowIds().forEach(noShow -> assertFalse(joined.contains(noShow), mix));
+                    // The clamp at zero is applied by BalanceService.chargeNoShows, see BalanceTopUpTests
+                    assertEquals(originalPenalty(price), settlement.penalty(), mix);
+                }
+            }
+        }
+    }
+
+    // completeCall's owner update before settlement went set-based
+    private static long originalOwnerDelta(Call call, List<Long> participants, List<Long> joined) {
+        int participantPrice = call.getParticipantPrice();
+        int ownerRevenue = 0;
+        int teachingRevenuePerUser = (int) Math.ceil(participantPrice * 75 / 100.0);
+        for (Long participant : participants) {
+            if (joined.contains(participant) && !call.getIsLearnTogether()) {
+                ownerRevenue += teachingRevenuePerUser;
+            }
+        }
+        return call.getIsLearnTogether() ? -(call.getPost().getPrice() * 66L) : ownerRevenue;
+    }
+
+    // completeCall's no-show penalty before settlement went set-based
+    private static int originalPenalty(int participantPrice) {
+        return (int) Math.ceil(participantPrice * 75 / 100.0);
+    }
+
+    private static Call call(int participantPrice, boolean learnTogether, int postPrice) {
+        return Call.builder()
+                .owner(AppUser.builder().id(OWNER_ID).build())
+                .post(Post.builder().price(postPrice).build())
+                .participantPrice(participantPrice)
+                .isLearnTogether(learnTogether)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saves 10k skills through the repository on PostgreSQL with the configured JDBC batching and pooled-lo ids,
+ * and again with the session's batch size forced to 1, and checks the batched run sends a fraction of the
+ * statements in less time. Opt-in with BRAINSWAP_BENCHMARK=true next to the BRAINSWAP_TEST_DB_URL used by
+ * QueryPlanTests.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_TEST_DB_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_BENCHMARK", matches = "true")
+class InsertBenchmarkTests {
+    private static final int ROWS = 10_000;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private SkillRepository skillRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BRAINSWAP_TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_PASSWORD", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Test
+    void batchedInsertsBeatOneStatementPerRow() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long batchedBest = Long.MAX_VALUE;
+        long unbatchedBest = Long.MAX_VALUE;
+        long batchedStatements = 0;
+        long unbatchedStatements = 0;
+        // The first round warms up the pool, the sequence and the statement caches, later rounds keep the fastest time
+        for (int run = 0; run <= RUNS; run++) {
+            statistics.clear();
+            long batched = insert("Batched " + run, false);
+            batchedStatements = statistics.getPrepareStatementCount();
+            statistics.clear();
+            long unbatched = insert("Unbatched " + run, true);
+            unbatchedStatements = statistics.getPrepareStatementCount();
+            if (run > 0) {
+                batchedBest = Math.min(batchedBest, batched);
+                unbatchedBest = Math.min(unbatchedBest, unbatched);
+            }
+        }
+
+        // One statement per batch of 50 plus one sequence call per block of 50, against one insert per row
+        assertTrue(batchedStatements <= 2L * ROWS / 50 + 10, "batched run sent " + batchedStatements + " statements");
+        assertTrue(unbatchedStatements >= ROWS, "unbatched run sent " + unbatchedStatements + " statements");
+        long batchedMillis = batchedBest / 1_000_000;
+        long unbatchedMillis = unbatchedBest / 1_000_000;
+        assertTrue(batchedBest < unbatchedBest,
+                () -> "batched inserts took " + batchedMillis + " ms, one per row " + unbatchedMillis + " ms");
+    }
+
+    // Nanoseconds to save and commit ROWS new skills
+    private long insert(String prefix, boolean oneStatementPerRow) {
+        String name = TestFixtures.unique(prefix);
+        List<Skill> skills = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            skills.add(Skill.builder().name(name + " " + i).marketValue(10).build());
+        }
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (oneStatementPerRow) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            }
+            skillRepository.saveAll(skills);
+        });
+        return System.nanoTime() - started;
+    }
+}
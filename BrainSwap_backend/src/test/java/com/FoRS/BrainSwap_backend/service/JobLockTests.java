@@ -0,0 +1,108 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.JobLease;
+import com.FoRS.BrainSwap_backend.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates several nodes sharing one lease table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLockTests {
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<JobLockService> nodes;
+    private String jobName;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nodes = List.of(
+                new JobLockService(jobLeaseRepository, meterRegistry, "node-a"),
+                new JobLockService(jobLeaseRepository, meterRegistry, "node-b"),
+                new JobLockService(jobLeaseRepository, meterRegistry, "node-c")
+        );
+        jobName = "test-job-" + System.nanoTime();
+    }
+
+    @Test
+    void onlyOneNodeRunsAJobAtATime() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(12);
+        for (int i = 0; i < 12; i++) {
+            JobLockService node = nodes.get(i % nodes.size());
+            pool.submit(() -> {
+                start.await();
+                return node.runExclusively(jobName, Duration.ofMinutes(1), Duration.ZERO, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    runs.incrementAndGet();
+                    sleep(100);
+                    running.decrementAndGet();
+                });
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, maxRunning.get());
+        assertTrue(runs.get() >= 1);
+    }
+
+    @Test
+    void leaseIsKeptForTheMinimumHoldAfterARun() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(nodes.get(0).runExclusively(jobName, Duration.ofMinutes(1), Duration.ofMinutes(1), runs::incrementAndGet));
+        assertFalse(nodes.get(1).runExclusively(jobName, Duration.ofMinutes(1), Duration.ofMinutes(1), runs::incrementAndGet));
+        assertFalse(nodes.get(0).runExclusively(jobName, Duration.ofMinutes(1), Duration.ofMinutes(1), runs::incrementAndGet));
+
+        assertEquals(1, runs.get());
+        assertEquals(2.0, meterRegistry.get("scheduled.job.skipped").tag("job", jobName).counter().count());
+        assertEquals(1.0, meterRegistry.get("scheduled.job.owner").tags("job", jobName, "node", "node-a").gauge().value());
+        assertEquals(0.0, meterRegistry.get("scheduled.job.owner").tags("job", jobName, "node", "node-b").gauge().value());
+        assertEquals("node-a", jobLeaseRepository.findById(jobName).orElseThrow().getLockedBy());
+    }
+
+    @Test
+    void leaseTimesComeFromTheDatabaseClock() {
+        assertTrue(nodes.get(0).runExclusively(jobName, Duration.ofMinutes(5), Duration.ZERO, () -> {
+            // Start and expiry are set by the same statement, whatever the node's own clock says
+            JobLease lease = jobLeaseRepository.findById(jobName).orElseThrow();
+            assertEquals(Duration.ofMinutes(5), Duration.between(lease.getLastStartedAt(), lease.getLockedUntil()));
+        }));
+
+        JobLease released = jobLeaseRepository.findById(jobName).orElseThrow();
+        assertFalse(released.getLockedUntil().isAfter(released.getLastFinishedAt()));
+        assertTrue(nodes.get(1).runExclusively(jobName, Duration.ofMinutes(5), Duration.ZERO, () -> { }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
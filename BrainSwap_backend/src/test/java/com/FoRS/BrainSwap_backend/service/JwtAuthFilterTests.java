@@ -0,0 +1,118 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.security.CustomUserDetails;
+import com.FoRS.BrainSwap_backend.security.JwtAuthFilter;
+import com.FoRS.BrainSwap_backend.security.JwtGenerator;
+import com.FoRS.BrainSwap_backend.utils.dto.user.UpdateUserDTO;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Authenticates bearer tokens through the stateless claims path, cached and after the user's
+ * credentials changed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthFilterTests {
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+    @Autowired
+    private JwtGenerator jwtGenerator;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private AppUser user;
+
+    @BeforeEach
+    void seed() {
+        user = fixtures.user("holder");
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedPrincipalIsServedWithoutADatabaseHit() throws Exception {
+        String token = tokenOf(user);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Authentication first = authenticate(token);
+        assertNotNull(first);
+        assertEquals(user.getId(), ((CustomUserDetails) first.getPrincipal()).getId());
+        // The token version check is the only statement
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        SecurityContextHolder.clearContext();
+        statistics.clear();
+        Authentication second = authenticate(token);
+        assertNotNull(second);
+        assertSame(first.getPrincipal(), second.getPrincipal());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void passwordChangeRejectsOlderTokens() throws Exception {
+        String token = tokenOf(user);
+        assertNotNull(authenticate(token));
+
+        userService.update(new UpdateUserDTO(null, null, "changed-password", null, List.of(), null));
+        SecurityContextHolder.clearContext();
+
+        assertNull(authenticate(token));
+        assertNotNull(authenticate(tokenOf(userRepository.findById(user.getId()).orElseThrow())));
+    }
+
+    @Test
+    void usernameChangeRejectsOlderTokens() throws Exception {
+        String token = tokenOf(user);
+        assertNotNull(authenticate(token));
+
+        userService.update(new UpdateUserDTO(TestFixtures.unique("renamed"), null, null, null, List.of(), null));
+        SecurityContextHolder.clearContext();
+
+        assertNull(authenticate(token));
+        AppUser renamed = userRepository.findById(user.getId()).orElseThrow();
+        Authentication fresh = authenticate(tokenOf(renamed));
+        assertNotNull(fresh);
+        assertEquals(renamed.getUsername(), ((CustomUserDetails) fresh.getPrincipal()).getUsername());
+    }
+
+    private String tokenOf(AppUser appUser) {
+        return jwtGenerator.generateToken(appUser.getId(), appUser.getUsername(), appUser.getRole().name(), appUser.getTokenVersion());
+    }
+
+    // Runs the token through the filter and returns the authentication it set up, if any
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
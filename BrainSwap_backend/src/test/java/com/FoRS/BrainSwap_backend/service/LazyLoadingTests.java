@@ -0,0 +1,118 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostFeedFilterDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renders service results the way a controller would, outside any transaction and with open-in-view off.
+ * A lazy association left for the view fails here with a LazyInitializationException.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LazyLoadingTests {
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SkillService skillService;
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private AppUser owner;
+    private AppUser student;
+    private Post post;
+    private Call call;
+
+    @BeforeEach
+    void seed() {
+        owner = fixtures.user("owner");
+        student = fixtures.user("student");
+        post = fixtures.post(owner, fixtures.skill("Piano"));
+        call = callRepository.save(Call.builder()
+                .post(post)
+                .owner(owner)
+                .scheduledTime(LocalDateTime.now().plusDays(1))
+                .maxParticipants(4)
+                .currentParticipants(1)
+                .participants(new ArrayList<>(List.of(student)))
+                .participantPrice(10)
+                .status(CallStatus.SCHEDULED)
+                .isLearnTogether(false)
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    void serviceResultsRenderOutsideTheTransaction() throws Exception {
+        Map<String, Supplier<Object>> reads = new LinkedHashMap<>();
+        reads.put("posts", postService::findAll);
+        reads.put("post", () -> postService.findById(post.getId()).orElseThrow());
+        reads.put("feed", () -> postService.getFeed(new PostFeedFilterDTO(null, null, null, null, null, null), null, 10));
+        reads.put("posts by owner", () -> postService.getByOwnerId(owner.getId()));
+        reads.put("calls", callService::findAll);
+        reads.put("call", () -> callService.findById(call.getId()).orElseThrow());
+        reads.put("calls by participant", () -> callService.getAllByParticipantId(student.getId()));
+        reads.put("users", userService::findAll);
+        reads.put("user", () -> userService.findById(student.getId()).orElseThrow());
+        reads.put("skills", skillService::findAll);
+
+        for (Map.Entry<String, Supplier<Object>> read : reads.entrySet()) {
+            Object result = read.getValue().get();
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            assertMaterialized(read.getKey(), result);
+            assertDoesNotThrow(() -> objectMapper.writeValueAsString(result), read.getKey());
+        }
+    }
+
+    // DTOs may only hold plain values, never a Hibernate proxy or persistent collection
+    private static void assertMaterialized(String read, Object value) throws ReflectiveOperationException {
+        if (value == null) {
+            return;
+        }
+        assertFalse(value instanceof HibernateProxy || value instanceof PersistentCollection<?>,
+                () -> read + " returned a lazy " + value.getClass().getName());
+        if (value instanceof Optional<?> optional) {
+            assertMaterialized(read, optional.orElse(null));
+        } else if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                assertMaterialized(read, element);
+            }
+        } else if (value.getClass().isRecord()) {
+            for (RecordComponent component : value.getClass().getRecordComponents()) {
+                assertMaterialized(read, component.getAccessor().invoke(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Serves concurrent post reads with a slow render after the service call, once as now and once wrapped in
+ * the interceptor spring.jpa.open-in-view=true registers, and prints the average hikaricp.connections.active
+ * and datasource.pool.saturation of the primary pool for both. Opt-in with BRAINSWAP_BENCHMARK=true.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_BENCHMARK", matches = "true")
+class PoolOccupancyBenchmarkTests {
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 50;
+    private static final long RENDER_MILLIS = 10;
+
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Post post;
+
+    @BeforeEach
+    void seed() {
+        post = fixtures.post(fixtures.user("owner"), fixtures.skill("Cello"));
+        postService.findById(post.getId());
+    }
+
+    @Test
+    void openInViewHoldsConnectionsThroughTheRender() throws Exception {
+        // The first round warms up the pool and the mappers
+        load(false);
+        load(true);
+        double[] withoutView = load(false);
+        double[] withView = load(true);
+
+        System.out.printf("%d readers, %d ms render: open-in-view off %.2f active (%.0f%% saturation), on %.2f active (%.0f%% saturation)%n",
+                THREADS, RENDER_MILLIS, withoutView[0], 100 * withoutView[1], withView[0], 100 * withView[1]);
+        assertTrue(withoutView[0] < withView[0], "open-in-view off did not lower pool occupancy");
+    }
+
+    // Average active connections and saturation sampled while the readers run
+    private double[] load(boolean openInView) throws Exception {
+        Gauge active = meterRegistry.get("hikaricp.connections.active").tag("pool", "primary").gauge();
+        Gauge saturation = meterRegistry.get("datasource.pool.saturation").tag("pool", "primary").gauge();
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+
+        ExecutorService readers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(readers.submit(() -> {
+                start.await();
+                for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+                    ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+                    if (openInView) {
+                        interceptor.preHandle(request);
+                    }
+                    try {
+                        Object body = postService.findById(post.getId()).orElseThrow();
+                        Thread.sleep(RENDER_MILLIS);
+                        objectMapper.writeValueAsString(body);
+                    } finally {
+                        if (openInView) {
+                            interceptor.afterCompletion(request, null);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        double activeSum = 0;
+        double saturationSum = 0;
+        int samples = 0;
+        start.countDown();
+        while (samples == 0 || results.stream().anyMatch(result -> !result.isDone())) {
+            activeSum += active.value();
+            saturationSum += saturation.value();
+            samples++;
+            Thread.sleep(1);
+        }
+        readers.shutdown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        return new double[]{activeSum / samples, saturationSum / samples};
+    }
+}
@@ -0,0 +1,122 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.repository.PostRepository;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.dto.CursorPageDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.GetPostDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.PostFeedFilterDTO;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PostQueryCountTests {
+    private static final int POSTS = 10;
+    private static final int CALLS_PER_POST = 3;
+
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SkillRepository skillRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long firstPostId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        Skill skill = skillRepository.save(Skill.builder().name("Guitar").marketValue(20).build());
+        List<AppUser> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(userRepository.save(AppUser.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@brainswap.test")
+                    .password("password1!")
+                    .build()));
+        }
+        for (int i = 0; i < POSTS; i++) {
+            Post post = postRepository.save(Post.builder()
+                    .title("Post " + i)
+                    .owner(users.get(i % users.size()))
+                    .skill(skill)
+                    .type(PostType.TEACHING)
+                    .build());
+            if (firstPostId == null) {
+                firstPostId = post.getId();
+            }
+            for (int j = 0; j < CALLS_PER_POST; j++) {
+                callRepository.save(Call.builder()
+                        .post(post)
+                        .owner(post.getOwner())
+                        .scheduledTime(LocalDateTime.now().plusDays(j + 1))
+                        .maxParticipants(5)
+                        .currentParticipants(2)
+                        .participants(new ArrayList<>(List.of(users.get(j), users.get(j + 1))))
+                        .participantPrice(20)
+                        .isLearnTogether(false)
+                        .isActive(true)
+                        .build());
+            }
+        }
+
+        // Start every test from an empty persistence context so each load really hits the database
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void feedPageRunsConstantNumberOfStatements() {
+        PostFeedFilterDTO noFilter = new PostFeedFilterDTO(null, null, null, null, null, null);
+        CursorPageDTO<GetPostDTO> page = postService.getFeed(noFilter, null, POSTS);
+
+        assertEquals(POSTS, page.items().size());
+        assertTrue(page.items().stream().allMatch(post -> post.calls().size() == CALLS_PER_POST));
+        assertTrue(page.items().stream()
+                .flatMap(post -> post.calls().stream())
+                .allMatch(call -> call.participants().size() == 2));
+        // posts with owners, calls, call owners, participants
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Feed ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void postDetailRunsConstantNumberOfStatements() {
+        GetPostDTO post = postService.findById(firstPostId).orElseThrow();
+
+        assertEquals(CALLS_PER_POST, post.calls().size());
+        // post with owner, calls and call owners, participants
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Post detail ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,90 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates an empty PostgreSQL database with Flyway, lets Hibernate validate it against the entities
+ * and checks every hot query can be answered from its index. Needs a scratch database, for example
+ * BRAINSWAP_TEST_DB_URL=jdbc:postgresql://localhost:5432/brainswap_test (dropped and recreated per run)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_TEST_DB_URL", matches = ".+")
+class QueryPlanTests {
+    // Query shaped like the SQL Hibernate generates for the repository method, and the index it should use
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("SELECT p.id FROM post p WHERE p.owner_id = 1 ORDER BY p.id", "idx_post_owner");
+        HOT_QUERIES.put("SELECT p.id FROM post p WHERE p.skill_id = 1 ORDER BY p.id DESC LIMIT 20", "idx_post_skill_feed");
+        HOT_QUERIES.put("SELECT c.id FROM call c WHERE c.post_id = 1 ORDER BY c.scheduled_time", "idx_call_post_scheduled");
+        HOT_QUERIES.put("SELECT c.id FROM call c WHERE c.owner_id = 1", "idx_call_owner");
+        HOT_QUERIES.put("SELECT c.id FROM call c WHERE c.status = 'IN_PROGRESS' AND c.end_time <= now() "
+                + "AND c.is_active = true ORDER BY c.end_time LIMIT 100", "idx_call_due");
+        HOT_QUERIES.put("SELECT c.id FROM call c WHERE c.zoom_status IN ('PENDING', 'FAILED', 'PROVISIONING') "
+                + "AND c.is_active = true AND c.status = 'SCHEDULED'", "idx_call_zoom_status");
+        HOT_QUERIES.put("SELECT cp.call_id FROM call_participants cp WHERE cp.user_id = 1", "idx_call_participants_user");
+        HOT_QUERIES.put("SELECT us.skill_id FROM user_skill us WHERE us.user_id = 1", "idx_user_skill_user");
+        HOT_QUERIES.put("SELECT us.user_id FROM user_skill us WHERE us.skill_id = 1", "idx_user_skill_skill");
+        HOT_QUERIES.put("SELECT o.call_id FROM open_call o WHERE o.skill_id = 1 AND o.scheduled_time >= now() "
+                + "AND o.scheduled_time < now() + interval '30 days' ORDER BY o.scheduled_time, o.call_id LIMIT 20", "idx_open_call_skill_time");
+        HOT_QUERIES.put("SELECT p.id FROM post p WHERE p.search_vector @@ websearch_to_tsquery('english', 'guitar chords')", "idx_post_search");
+        HOT_QUERIES.put("SELECT p.id FROM post p WHERE p.title % 'guiter'", "idx_post_title_trgm");
+        HOT_QUERIES.put("SELECT s.id FROM skill s WHERE s.name % 'pyhton'", "idx_skill_name_trgm");
+        HOT_QUERIES.put("SELECT s.id FROM skill s WHERE lower(s.name) LIKE 'pia%'", "idx_skill_name_prefix");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BRAINSWAP_TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_PASSWORD", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Test
+    void hotQueriesUseTheirIndexes() {
+        Map<String, String> plans = jdbcTemplate.execute((ConnectionCallback<Map<String, String>>) connection -> {
+            Map<String, String> explained = new LinkedHashMap<>();
+            try (Statement statement = connection.createStatement()) {
+                // Tables are empty, so take sequential scans off the table to see which index the planner would pick
+                statement.execute("SET enable_seqscan = off");
+                for (String sql : HOT_QUERIES.keySet()) {
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+                        while (rows.next()) {
+                            plan.append(rows.getString(1)).append('\n');
+                        }
+                    }
+                    explained.put(sql, plan.toString());
+                }
+                statement.execute("RESET enable_seqscan");
+            }
+            return explained;
+        });
+
+        HOT_QUERIES.forEach((sql, index) ->
+                assertTrue(plans.get(sql).contains(index), () -> "Expected " + index + " for " + sql + "\n" + plans.get(sql)));
+    }
+}
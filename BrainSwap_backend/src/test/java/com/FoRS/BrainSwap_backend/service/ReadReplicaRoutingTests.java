@@ -0,0 +1,49 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uses two in-memory databases as primary and replica and checks which one each transaction runs on.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReplicaRoutingTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=CALL");
+        registry.add("datasource.replica.url", () -> "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=CALL");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertTrue(connectionUrl(true).contains("routing-replica"));
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertTrue(connectionUrl(false).contains("routing-primary"));
+    }
+
+    private String connectionUrl(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getURL()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds a million posts and ten thousand skills into a scratch PostgreSQL database and prints search
+ * latencies. Opt-in with BRAINSWAP_BENCHMARK=true next to the BRAINSWAP_TEST_DB_URL used by QueryPlanTests.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_TEST_DB_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_BENCHMARK", matches = "true")
+class SearchBenchmarkTests {
+    private static final int POSTS = 1_000_000;
+    private static final int SKILLS = 10_000;
+    private static final int RUNS = 50;
+
+    @Autowired
+    private SearchService searchService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BRAINSWAP_TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("BRAINSWAP_TEST_DB_PASSWORD", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @BeforeAll
+    void seed() {
+        String suffix = TestFixtures.unique("bench");
+        Long ownerId = fixtures.user("bench").getId();
+        jdbcTemplate.update("INSERT INTO skill (id, name, popularity, market_value, predefined) " +
+                "SELECT nextval('skill_seq'), (ARRAY['Piano', 'Python', 'Painting', 'Pilates', 'Chess', 'Guitar'])[1 + g % 6] " +
+                "|| ' ' || ? || ' ' || g, g % 100, 15, false FROM generate_series(1, ?) AS g", suffix, SKILLS);
+        Long skillId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM skill WHERE name LIKE ?", Long.class, "% " + suffix + " %");
+        jdbcTemplate.update("INSERT INTO post (id, title, description, owner_id, skill_id, price, type, is_active) " +
+                "SELECT nextval('post_seq'), " +
+                "(ARRAY['Guitar', 'Piano', 'Chess', 'Spanish', 'Python', 'Calculus', 'Painting', 'Yoga'])[1 + g % 8] || ' lesson ' || g, " +
+                "'Learn ' || (ARRAY['chords', 'scales', 'openings', 'grammar', 'loops', 'integrals', 'portraits', 'breathing'])[1 + (g / 8) % 8] " +
+                "|| ' step by step', ?, ?, 10, 'TEACHING', true FROM generate_series(1, ?) AS g", ownerId, skillId, POSTS);
+        jdbcTemplate.execute("ANALYZE post");
+        jdbcTemplate.execute("ANALYZE skill");
+    }
+
+    @Test
+    void searchLatencies() {
+        benchmark("post full-text", () -> searchService.searchPosts("guitar chords", 0, 20));
+        benchmark("post typo", () -> searchService.searchPosts("guiter lesson 4242", 0, 20));
+        benchmark("post deep page", () -> searchService.searchPosts("piano scales", 20, 20));
+        benchmark("skill fuzzy", () -> searchService.searchSkills("pyhton", 10));
+        benchmark("skill autocomplete", () -> searchService.autocompleteSkills("Pia", 10));
+    }
+
+    private static void benchmark(String name, Supplier<List<?>> search) {
+        assertFalse(search.get().isEmpty(), name + " found nothing");
+        long[] micros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            search.get();
+            micros[i] = (System.nanoTime() - started) / 1_000;
+        }
+        Arrays.sort(micros);
+        System.out.println(name + ": p50 " + micros[RUNS / 2] / 1_000.0 + " ms, p95 " + micros[RUNS * 95 / 100] / 1_000.0 + " ms");
+    }
+}
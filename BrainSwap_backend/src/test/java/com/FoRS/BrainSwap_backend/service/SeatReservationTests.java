@@ -0,0 +1,137 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CancelScheduleDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.OpenCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.ScheduleCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.WaitlistPositionDTO;
+import com.FoRS.BrainSwap_backend.utils.exception.CallFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schedules many users onto the same call at once and checks that seats are never overbooked.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatReservationTests {
+    private static final int SEATS = 5;
+    private static final int CONTENDERS = 60;
+
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private OpenCallService openCallService;
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Skill skill;
+    private Post post;
+
+    @BeforeEach
+    void seed() {
+        skill = fixtures.skill("Go");
+        post = fixtures.post(fixtures.user("owner"), skill);
+    }
+
+    @Test
+    void concurrentSchedulingNeverOverbooks() throws InterruptedException {
+        Call call = fixtures.call(post, SEATS);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            userIds.add(fixtures.user("student" + i).getId());
+        }
+
+        AtomicInteger scheduled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (Long userId : userIds) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    callService.scheduleCall(new ScheduleCallDTO(call.getId(), userId));
+                    scheduled.incrementAndGet();
+                } catch (CallFullException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(SEATS, scheduled.get());
+        assertEquals(CONTENDERS - SEATS, rejected.get());
+        assertEquals(SEATS, callRepository.findSummaryById(call.getId()).orElseThrow().currentParticipants());
+        assertEquals(SEATS, userIds.stream().filter(id -> callRepository.isParticipant(call.getId(), id)).count());
+    }
+
+    @Test
+    void cancellationPromotesTheHeadOfTheWaitlist() {
+        Call call = fixtures.call(post, 1);
+        Long seated = fixtures.user("seated").getId();
+        Long first = fixtures.user("first").getId();
+        Long second = fixtures.user("second").getId();
+
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), seated));
+        assertThrows(CallFullException.class, () -> callService.scheduleCall(new ScheduleCallDTO(call.getId(), first)));
+        WaitlistPositionDTO firstPosition = callService.joinWaitlist(new ScheduleCallDTO(call.getId(), first));
+        WaitlistPositionDTO secondPosition = callService.joinWaitlist(new ScheduleCallDTO(call.getId(), second));
+        assertEquals(1L, firstPosition.position());
+        assertEquals(2L, secondPosition.position());
+
+        callService.cancelSchedule(new CancelScheduleDTO(call.getId(), seated));
+
+        assertTrue(callRepository.isParticipant(call.getId(), first));
+        assertFalse(callRepository.isParticipant(call.getId(), seated));
+        assertFalse(callRepository.isParticipant(call.getId(), second));
+        assertEquals(1, callRepository.findSummaryById(call.getId()).orElseThrow().currentParticipants());
+    }
+
+    @Test
+    void openCallIndexFollowsFreeSeats() {
+        Call call = fixtures.call(post, 2);
+        Long first = fixtures.user("first").getId();
+        Long second = fixtures.user("second").getId();
+
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), first));
+        List<OpenCallDTO> open = openCallService.findOpenCalls(skill.getId(), null, null, null);
+        assertEquals(1, open.size());
+        assertEquals(call.getId(), open.get(0).callId());
+        assertEquals(1, open.get(0).freeSeats());
+
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), second));
+        assertTrue(openCallService.findOpenCalls(skill.getId(), null, null, null).isEmpty());
+
+        callService.cancelSchedule(new CancelScheduleDTO(call.getId(), first));
+        assertEquals(1, openCallService.findOpenCalls(skill.getId(), null, null, null).get(0).freeSeats());
+
+        callService.deactivateCall(call.getId());
+        assertTrue(openCallService.findOpenCalls(skill.getId(), null, null, null).isEmpty());
+    }
+}
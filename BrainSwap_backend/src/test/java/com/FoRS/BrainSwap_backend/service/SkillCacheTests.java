@@ -0,0 +1,70 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.CreateSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.GetSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.skill.UpdateSkillAdminDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Skill changes rolled back after the service call must leave the skill cache as it was.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SkillCacheTests {
+    @Autowired
+    private SkillService skillService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void rolledBackSkillNeverReachesTheCache() {
+        String name = TestFixtures.unique("Juggling");
+
+        GetSkillDTO saved = transactionTemplate.execute(status -> {
+            GetSkillDTO skill = skillService.save(new CreateSkillDTO(name));
+            status.setRollbackOnly();
+            return skill;
+        });
+
+        assertTrue(skillService.findById(saved.id()).isEmpty());
+        assertTrue(skillService.findByNameIn(List.of(name)).isEmpty());
+    }
+
+    @Test
+    void rolledBackRenameKeepsTheCachedSkill() {
+        Skill skill = fixtures.skill("Fencing");
+        assertEquals(skill.getName(), skillService.findById(skill.getId()).orElseThrow().name());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            skillService.update(new UpdateSkillAdminDTO(skill.getId(), TestFixtures.unique("Sabre"), null, null, null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(skill.getName(), skillService.findById(skill.getId()).orElseThrow().name());
+        assertEquals(List.of(skill.getId()), skillService.findByNameIn(List.of(skill.getName())).stream().map(Skill::getId).toList());
+    }
+
+    @Test
+    void committedRenameIsCachedUnderTheNewNameOnly() {
+        Skill skill = fixtures.skill("Archery");
+        skillService.findByNameIn(List.of(skill.getName()));
+        String renamed = TestFixtures.unique("Longbow");
+
+        skillService.update(new UpdateSkillAdminDTO(skill.getId(), renamed, null, null, null));
+
+        assertEquals(renamed, skillService.findById(skill.getId()).orElseThrow().name());
+        assertTrue(skillService.findByNameIn(List.of(skill.getName())).isEmpty());
+        assertEquals(1, skillService.findByNameIn(List.of(renamed)).size());
+    }
+}
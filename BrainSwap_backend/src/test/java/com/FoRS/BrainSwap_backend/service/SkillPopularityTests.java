@@ -0,0 +1,110 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.SkillActivity;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CancelScheduleDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.ScheduleCallDTO;
+import com.FoRS.BrainSwap_backend.utils.exception.CallFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Feeds skill activity from many threads and checks every weight reaches skill.popularity exactly once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SkillPopularityTests {
+    private static final int EVENTS = 10_000;
+
+    @Autowired
+    private SkillPopularityAggregator aggregator;
+    @Autowired
+    private SkillService skillService;
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private SkillRepository skillRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Skill skill;
+
+    @BeforeEach
+    void seed() {
+        skill = fixtures.skill("Origami");
+    }
+
+    @Test
+    void concurrentActivityIsAddedInOneFlush() throws InterruptedException {
+        // A node of its own with tiny batches, so one flush spans several transactions
+        SkillPopularityAggregator node = new SkillPopularityAggregator(skillService, 2);
+        Skill other = fixtures.skill("Kirigami");
+        Skill third = fixtures.skill("Quilling");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < EVENTS; i++) {
+            Long skillId = i % 2 == 0 ? skill.getId() : other.getId();
+            pool.submit(() -> {
+                start.await();
+                node.record(skillId, SkillActivity.SEARCHED.getWeight());
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        node.record(third.getId(), SkillActivity.CALL_COMPLETED.getWeight());
+
+        node.flush();
+        assertEquals(EVENTS / 2, popularity(skill));
+        assertEquals(EVENTS / 2, popularity(other));
+        assertEquals(SkillActivity.CALL_COMPLETED.getWeight(), popularity(third));
+
+        // Nothing is left to add twice
+        node.flush();
+        assertEquals(EVENTS / 2, popularity(skill));
+    }
+
+    @Test
+    void onlyCommittedSchedulingCounts() {
+        Call call = fixtures.call(fixtures.post(fixtures.user("owner"), skill), 1);
+
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), fixtures.user("first").getId()));
+        assertThrows(CallFullException.class,
+                () -> callService.scheduleCall(new ScheduleCallDTO(call.getId(), fixtures.user("second").getId())));
+
+        aggregator.flush();
+        assertEquals(SkillActivity.CALL_SCHEDULED.getWeight(), popularity(skill));
+    }
+
+    @Test
+    void seatTakenFromTheWaitlistCounts() {
+        Call call = fixtures.call(fixtures.post(fixtures.user("owner"), skill), 1);
+        Long seated = fixtures.user("seated").getId();
+        Long waiting = fixtures.user("waiting").getId();
+
+        callService.scheduleCall(new ScheduleCallDTO(call.getId(), seated));
+        callService.joinWaitlist(new ScheduleCallDTO(call.getId(), waiting));
+        callService.cancelSchedule(new CancelScheduleDTO(call.getId(), seated));
+
+        aggregator.flush();
+        assertEquals(2 * SkillActivity.CALL_SCHEDULED.getWeight(), popularity(skill));
+    }
+
+    private int popularity(Skill skill) {
+        return skillRepository.findById(skill.getId()).orElseThrow().getPopularity();
+    }
+}
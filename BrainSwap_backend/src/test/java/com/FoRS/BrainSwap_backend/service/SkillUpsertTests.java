@@ -0,0 +1,125 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.utils.dto.skill.BasicSkillDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.user.CreateUserDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.user.GetUserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registrations resolving their skills through SkillRepository.upsertByNames, which only runs on PostgreSQL.
+ * Runs against a throwaway PostgreSQL container with the Flyway schema, so it is part of every build.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class SkillUpsertTests {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Test
+    void registrationReusesExistingSkillsAndInsertsNewOnesOnce() {
+        String existing = TestFixtures.unique("Origami");
+        String fresh = TestFixtures.unique("Knitting");
+        userService.save(registration("first", existing));
+        Long existingId = jdbcTemplate.queryForObject("SELECT id FROM skill WHERE name = ?", Long.class, existing);
+
+        // The new name twice in one registration still becomes a single skill
+        GetUserDTO user = userService.save(registration("second", existing, fresh, fresh));
+
+        assertEquals(1, skillCount(existing));
+        assertEquals(1, skillCount(fresh));
+        assertEquals(existingId, jdbcTemplate.queryForObject("SELECT id FROM skill WHERE name = ?", Long.class, existing));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_skill WHERE user_id = ?", Long.class, user.id()));
+    }
+
+    @Test
+    void concurrentRegistrationsShareOneNewSkill() throws Exception {
+        String shared = TestFixtures.unique("Beekeeping");
+        String firstOwn = TestFixtures.unique("Falconry");
+        String secondOwn = TestFixtures.unique("Taxidermy");
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        // The first registration inserts the shared skill and holds its transaction open
+        CompletableFuture<GetUserDTO> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            GetUserDTO user = userService.save(registration("first", shared, firstOwn));
+            firstInserted.countDown();
+            await(commitFirst);
+            return user;
+        }));
+        assertTrue(firstInserted.await(30, TimeUnit.SECONDS));
+
+        // The second one blocks on the shared name's unique key until the first commits
+        CompletableFuture<GetUserDTO> second = CompletableFuture.supplyAsync(() ->
+                userService.save(registration("second", shared, secondOwn)));
+        Thread.sleep(500);
+        assertFalse(second.isDone(), "the second registration should wait on the uncommitted skill");
+        commitFirst.countDown();
+
+        GetUserDTO firstUser = first.get(30, TimeUnit.SECONDS);
+        GetUserDTO secondUser = second.get(30, TimeUnit.SECONDS);
+
+        assertEquals(1, skillCount(shared));
+        assertEquals(1, skillCount(firstOwn));
+        assertEquals(1, skillCount(secondOwn));
+        Long sharedId = jdbcTemplate.queryForObject("SELECT id FROM skill WHERE name = ?", Long.class, shared);
+        assertEquals(List.of(firstUser.id(), secondUser.id()), jdbcTemplate.queryForList(
+                "SELECT user_id FROM user_skill WHERE skill_id = ? ORDER BY user_id", Long.class, sharedId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_skill WHERE user_id = ?", Long.class, secondUser.id()));
+    }
+
+    private static CreateUserDTO registration(String name, String... skills) {
+        String username = TestFixtures.unique(name);
+        return new CreateUserDTO(username, username + "@brainswap.test", "password1!",
+                List.of(skills).stream().map(BasicSkillDTO::new).toList());
+    }
+
+    private long skillCount(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM skill WHERE name = ?", Long.class, name);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
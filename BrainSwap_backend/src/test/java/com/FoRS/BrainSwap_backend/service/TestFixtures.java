@@ -0,0 +1,83 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.repository.PostRepository;
+import com.FoRS.BrainSwap_backend.repository.SkillRepository;
+import com.FoRS.BrainSwap_backend.repository.UserRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.CallStatus;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saves users, skills, posts and calls with unique names, so tests can share the test profile's database
+ * and Spring context instead of starting their own.
+ */
+@Component
+class TestFixtures {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime());
+
+    private final UserRepository userRepository;
+    private final SkillRepository skillRepository;
+    private final PostRepository postRepository;
+    private final CallRepository callRepository;
+
+    TestFixtures(UserRepository userRepository,
+                 SkillRepository skillRepository,
+                 PostRepository postRepository,
+                 CallRepository callRepository) {
+        this.userRepository = userRepository;
+        this.skillRepository = skillRepository;
+        this.postRepository = postRepository;
+        this.callRepository = callRepository;
+    }
+
+    static String unique(String name) {
+        return name + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    AppUser user(String name) {
+        String username = unique(name);
+        return userRepository.save(AppUser.builder()
+                .username(username)
+                .email(username + "@brainswap.test")
+                .password("password1!")
+                .build());
+    }
+
+    Skill skill(String name) {
+        return skillRepository.save(Skill.builder().name(unique(name)).marketValue(10).build());
+    }
+
+    Post post(AppUser owner, Skill skill) {
+        return postRepository.save(Post.builder()
+                .title(unique("Lesson"))
+                .owner(owner)
+                .skill(skill)
+                .type(PostType.TEACHING)
+                .build());
+    }
+
+    // Scheduled for tomorrow with its Zoom meeting already in place
+    Call call(Post post, int seats) {
+        return callRepository.save(Call.builder()
+                .post(post)
+                .owner(post.getOwner())
+                .scheduledTime(LocalDateTime.now().plusDays(1))
+                .maxParticipants(seats)
+                .currentParticipants(0)
+                .participantPrice(10)
+                .status(CallStatus.SCHEDULED)
+                .isLearnTogether(false)
+                .zoomStatus(ZoomProvisioningStatus.PROVISIONED)
+                .isActive(true)
+                .build());
+    }
+}
@@ -0,0 +1,120 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends meeting-sized requests to a local stub of the Zoom API through the pooled RestTemplate and through
+ * a bare HttpURLConnection one, and prints the throughput of both at several concurrency levels.
+ * Opt-in with BRAINSWAP_BENCHMARK=true.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "BRAINSWAP_BENCHMARK", matches = "true")
+class ZoomHttpClientBenchmarkTests {
+    private static final int REQUESTS = 2_000;
+    private static final int[] CONCURRENCY = {1, 8, 32};
+    private static final long STUB_LATENCY_MILLIS = 5;
+
+    @Autowired
+    private RestTemplate restTemplate;
+    @Autowired
+    private PoolingHttpClientConnectionManager zoomConnectionManager;
+
+    private HttpServer zoomStub;
+    private ExecutorService stubExecutor;
+    private String meetingsUrl;
+
+    @BeforeAll
+    void startZoomStub() throws IOException {
+        zoomStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        zoomStub.createContext("/v2/users/me/meetings", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(STUB_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1,\"join_url\":\"https://zoom.test/j/1\",\"password\":\"pw\",\"host_key\":\"hk\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubExecutor = Executors.newCachedThreadPool();
+        zoomStub.setExecutor(stubExecutor);
+        zoomStub.start();
+        meetingsUrl = "http://localhost:" + zoomStub.getAddress().getPort() + "/v2/users/me/meetings";
+    }
+
+    @AfterAll
+    void stopZoomStub() {
+        zoomStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void throughputAtConcurrency() throws Exception {
+        RestTemplate bare = new RestTemplate();
+        for (int concurrency : CONCURRENCY) {
+            // Warm both clients up so connection setup of the first round is not measured
+            run(restTemplate, concurrency, REQUESTS / 10);
+            run(bare, concurrency, REQUESTS / 10);
+
+            double pooled = run(restTemplate, concurrency, REQUESTS);
+            double unpooled = run(bare, concurrency, REQUESTS);
+            System.out.println("concurrency " + concurrency + ": pooled " + Math.round(pooled) + " req/s, bare "
+                    + Math.round(unpooled) + " req/s, pool " + zoomConnectionManager.getTotalStats());
+        }
+    }
+
+    // Returns requests per second
+    private double run(RestTemplate client, int concurrency, int requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    String meeting = client.postForObject(meetingsUrl, "{\"topic\":\"BrainSwap Session\",\"type\":2}", String.class);
+                    assertNotNull(meeting);
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            return requests * 1_000_000_000.0 / (System.nanoTime() - started);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
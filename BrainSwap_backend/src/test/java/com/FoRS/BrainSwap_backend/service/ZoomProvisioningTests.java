@@ -0,0 +1,271 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.FoRS.BrainSwap_backend.domain.AppUser;
+import com.FoRS.BrainSwap_backend.domain.Call;
+import com.FoRS.BrainSwap_backend.domain.Post;
+import com.FoRS.BrainSwap_backend.domain.Skill;
+import com.FoRS.BrainSwap_backend.repository.CallRepository;
+import com.FoRS.BrainSwap_backend.utils.constants.LearningType;
+import com.FoRS.BrainSwap_backend.utils.constants.PostType;
+import com.FoRS.BrainSwap_backend.utils.constants.ZoomProvisioningStatus;
+import com.FoRS.BrainSwap_backend.utils.dto.call.CreateCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.call.GetCallDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.CreatePostDTO;
+import com.FoRS.BrainSwap_backend.utils.dto.post.GetPostDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs call creation against a local stub of the Zoom OAuth and meetings endpoints.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ZoomProvisioningTests {
+    private static final int MAX_CONCURRENCY = 4;
+    private static final int RATE_LIMIT_PER_SECOND = 40;
+    private static final AtomicInteger meetingsCreated = new AtomicInteger();
+    private static final AtomicInteger meetingsDeleted = new AtomicInteger();
+    private static final AtomicInteger failuresToSimulate = new AtomicInteger();
+    private static final AtomicInteger requestsInFlight = new AtomicInteger();
+    private static final AtomicInteger peakRequestsInFlight = new AtomicInteger();
+    private static final List<Long> requestStartNanos = Collections.synchronizedList(new ArrayList<>());
+    private static volatile long meetingLatencyMillis;
+    private static ExecutorService stubExecutor;
+    private static HttpServer zoomStub;
+
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ZoomProvisioningService provisioningService;
+    @Autowired
+    private ZoomService zoomService;
+    @Autowired
+    private JobLockService jobLockService;
+
+    private AppUser owner;
+    private Skill skill;
+    private Post post;
+
+    @BeforeAll
+    static void startZoomStub() throws IOException {
+        zoomStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        zoomStub.createContext("/oauth/token", exchange ->
+                respond(exchange, 200, "{\"access_token\":\"stub-token\",\"expires_in\":3600}"));
+        zoomStub.createContext("/v2/users/me/meetings", exchange -> {
+            requestStartNanos.add(System.nanoTime());
+            peakRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+            try {
+                if (failuresToSimulate.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                    respond(exchange, 503, "{\"message\":\"unavailable\"}");
+                    return;
+                }
+                Thread.sleep(meetingLatencyMillis);
+                int id = meetingsCreated.incrementAndGet();
+                respond(exchange, 201, "{\"id\":" + id + ",\"join_url\":\"https://zoom.test/j/" + id + "\","
+                        + "\"password\":\"pw\",\"host_key\":\"hk\"}");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                requestsInFlight.decrementAndGet();
+            }
+        });
+        zoomStub.createContext("/v2/meetings/", exchange -> {
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                meetingsDeleted.incrementAndGet();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        // Handles requests concurrently, the default executor would serialize them
+        stubExecutor = Executors.newCachedThreadPool();
+        zoomStub.setExecutor(stubExecutor);
+        zoomStub.start();
+    }
+
+    @AfterAll
+    static void stopZoomStub() {
+        zoomStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void zoomProperties(DynamicPropertyRegistry registry) {
+        String baseUrl = "http://localhost:" + zoomStub.getAddress().getPort();
+        // The stub's port gives this class a context of its own, which needs a database of its own
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:zoom-provisioning;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=CALL");
+        registry.add("zoom.api.base-url", () -> baseUrl + "/v2");
+        registry.add("zoom.oauth.token-url", () -> baseUrl + "/oauth/token");
+        registry.add("zoom.provisioning.initial-backoff-ms", () -> "10");
+        registry.add("zoom.provisioning.max-backoff-ms", () -> "50");
+        registry.add("zoom.provisioning.max-concurrency", () -> String.valueOf(MAX_CONCURRENCY));
+        registry.add("zoom.provisioning.rate-limit-per-second", () -> String.valueOf(RATE_LIMIT_PER_SECOND));
+    }
+
+    @BeforeEach
+    void seed() {
+        failuresToSimulate.set(0);
+        meetingLatencyMillis = 0;
+        peakRequestsInFlight.set(0);
+        requestStartNanos.clear();
+        owner = fixtures.user("teacher");
+        skill = fixtures.skill("Chess");
+        post = fixtures.post(owner, skill);
+    }
+
+    @Test
+    void callIsSavedPendingAndPatchedWithMeetingInBackground() throws InterruptedException {
+        GetCallDTO created = callService.save(newCall());
+
+        assertEquals(ZoomProvisioningStatus.PENDING, created.zoomStatus());
+        assertNull(created.zoomJoinUrl());
+
+        Call provisioned = awaitProvisioning(created.id());
+        assertEquals(ZoomProvisioningStatus.PROVISIONED, provisioned.getZoomStatus());
+        assertTrue(provisioned.getZoomJoinUrl().startsWith("https://zoom.test/j/"));
+        assertNotNull(provisioned.getZoomMeetingId());
+    }
+
+    @Test
+    void transientZoomFailuresAreRetried() throws InterruptedException {
+        failuresToSimulate.set(2);
+
+        GetCallDTO created = callService.save(newCall());
+
+        Call provisioned = awaitProvisioning(created.id());
+        assertEquals(ZoomProvisioningStatus.PROVISIONED, provisioned.getZoomStatus());
+        assertEquals(0, failuresToSimulate.get());
+    }
+
+    @Test
+    void batchIsFannedOutWithinTheConcurrencyAndRateBounds() throws InterruptedException {
+        int calls = 24;
+        // Slow enough that the rate limiter alone would let twice the permitted requests overlap
+        meetingLatencyMillis = 200;
+        List<CreateCallDTO> batch = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            batch.add(new CreateCallDTO(null, owner.getId(), LocalDateTime.now().plusDays(1).plusHours(i), 4, false));
+        }
+
+        // A post created with its calls, the calls are provisioned once the post's transaction commits
+        GetPostDTO created = postService.save(new CreatePostDTO("Openings", "Sicilian and French", skill.getId(),
+                owner.getId(), LearningType.VISUAL, PostType.TEACHING, batch));
+        List<Call> saved = callRepository.findByPostId(created.id());
+        assertEquals(calls, saved.size());
+        for (Call call : saved) {
+            assertEquals(ZoomProvisioningStatus.PROVISIONED, awaitProvisioning(call.getId()).getZoomStatus());
+        }
+
+        assertEquals(calls, requestStartNanos.size());
+        assertTrue(peakRequestsInFlight.get() <= MAX_CONCURRENCY, "peak " + peakRequestsInFlight.get());
+        assertTrue(peakRequestsInFlight.get() > 1, "calls were provisioned one at a time");
+        long spreadNanos = Collections.max(requestStartNanos) - Collections.min(requestStartNanos);
+        long minimumSpreadNanos = TimeUnit.SECONDS.toNanos(calls - 1) / RATE_LIMIT_PER_SECOND;
+        // Some slack for the stub seeing requests a little later than they left the rate limiter
+        assertTrue(spreadNanos >= minimumSpreadNanos * 8 / 10, "requests spread over " + spreadNanos + "ns");
+    }
+
+    @Test
+    void twoNodesProvisioningTheSameCallCreateOneMeeting() {
+        // A second node of its own, its in-flight set knows nothing about the first one's
+        ZoomProvisioningService otherNode = new ZoomProvisioningService(
+                zoomService, callRepository, jobLockService, 8, 100, 5, 10, 50, 5, 60_000, 900_000);
+        try {
+            Call call = fixtures.call(post, 4);
+            call.setZoomStatus(ZoomProvisioningStatus.PENDING);
+            callRepository.save(call);
+            int before = meetingsCreated.get();
+
+            CompletableFuture<ZoomProvisioningStatus> first = provisioningService.submit(call.getId());
+            CompletableFuture<ZoomProvisioningStatus> second = otherNode.submit(call.getId());
+            first.join();
+            second.join();
+
+            assertEquals(1, meetingsCreated.get() - before);
+            assertEquals(ZoomProvisioningStatus.PROVISIONED,
+                    callRepository.findById(call.getId()).orElseThrow().getZoomStatus());
+        } finally {
+            otherNode.shutdown();
+        }
+    }
+
+    @Test
+    void workerThatLostItsClaimDeletesItsMeeting() throws Exception {
+        meetingLatencyMillis = 500;
+        Call call = fixtures.call(post, 4);
+        call.setZoomStatus(ZoomProvisioningStatus.PENDING);
+        callRepository.save(call);
+        int deletedBefore = meetingsDeleted.get();
+
+        CompletableFuture<ZoomProvisioningStatus> slow = provisioningService.submit(call.getId());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (requestsInFlight.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Another node's sweep takes the call over while Zoom is still answering, as if the claim had gone stale
+        LocalDateTime takenOver = LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.MILLIS);
+        assertEquals(1, callRepository.claimForProvisioning(call.getId(), takenOver, takenOver.plusMinutes(1)));
+
+        assertEquals(ZoomProvisioningStatus.PROVISIONING, slow.get(10, TimeUnit.SECONDS));
+        assertEquals(1, meetingsDeleted.get() - deletedBefore);
+        Call stored = callRepository.findById(call.getId()).orElseThrow();
+        assertEquals(takenOver, stored.getZoomClaimedAt());
+        assertNull(stored.getZoomJoinUrl());
+    }
+
+    private CreateCallDTO newCall() {
+        return new CreateCallDTO(post.getId(), owner.getId(), LocalDateTime.now().plusDays(1), 4, false);
+    }
+
+    private Call awaitProvisioning(Long callId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        Call call = callRepository.findById(callId).orElseThrow();
+        while ((call.getZoomStatus() == ZoomProvisioningStatus.PENDING
+                || call.getZoomStatus() == ZoomProvisioningStatus.PROVISIONING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            call = callRepository.findById(callId).orElseThrow();
+        }
+        return call;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.FoRS.BrainSwap_backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the token manager against a local stub of the Zoom OAuth endpoint that answers slowly,
+ * so concurrent callers really overlap with the refresh.
+ */
+class ZoomTokenManagerTests {
+    private static final int CALLERS = 32;
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private volatile int expiresInSeconds = 3600;
+    private HttpServer oauthStub;
+    private ExecutorService stubExecutor;
+    private ZoomTokenManager tokenManager;
+
+    @BeforeEach
+    void startOauthStub() throws IOException {
+        oauthStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        oauthStub.createContext("/oauth/token", exchange -> {
+            int request = tokenRequests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"access_token\":\"token-" + request + "\",\"expires_in\":" + expiresInSeconds + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubExecutor = Executors.newCachedThreadPool();
+        oauthStub.setExecutor(stubExecutor);
+        oauthStub.start();
+
+        tokenManager = new ZoomTokenManager(new RestTemplate(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenManager, "tokenUrl",
+                "http://localhost:" + oauthStub.getAddress().getPort() + "/oauth/token");
+        ReflectionTestUtils.setField(tokenManager, "clientId", "client");
+        ReflectionTestUtils.setField(tokenManager, "clientSecret", "secret");
+        ReflectionTestUtils.setField(tokenManager, "accountId", "account");
+        ReflectionTestUtils.setField(tokenManager, "refreshMarginSeconds", 300L);
+    }
+
+    @AfterEach
+    void stopOauthStub() {
+        oauthStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersWithoutATokenShareOneRequest() throws Exception {
+        Set<String> tokens = getConcurrently();
+
+        assertEquals(1, tokenRequests.get());
+        assertEquals(Set.of("token-1"), tokens);
+    }
+
+    @Test
+    void tokenInsideItsRefreshMarginIsRefreshedOnceOnTheHotPath() throws Exception {
+        // The margin is capped at half the lifetime, so this token is due for a refresh after a second
+        expiresInSeconds = 2;
+        assertEquals("token-1", tokenManager.getAccessToken());
+        Thread.sleep(1_100);
+
+        Set<String> tokens = getConcurrently();
+
+        assertEquals(2, tokenRequests.get());
+        assertEquals(Set.of("token-2"), tokens);
+    }
+
+    private Set<String> getConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return tokenManager.getAccessToken();
+                }));
+            }
+            start.countDown();
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Future<String> result : results) {
+                tokens.add(result.get());
+            }
+            return tokens;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
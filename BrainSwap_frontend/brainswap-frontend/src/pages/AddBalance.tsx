@@ -17,6 +17,8 @@ interface AddBalanceProps {
 export default function AddBalance({ setUserData }: AddBalanceProps) {
   const [amount, setAmount] = useState('');
   const [error, setError] = useState('');
+  // One key per submission, kept across retries so a retried top-up is only credited once
+  const [idempotencyKey, setIdempotencyKey] = useState<string | null>(null);
   const navigate = useNavigate();
 
   const handleAddBalance = async () => {
@@ -36,16 +38,24 @@ export default function AddBalance({ setUserData }: AddBalanceProps) {
         return;
       }
 
+      const key = idempotencyKey ?? crypto.randomUUID();
+      setIdempotencyKey(key);
+
       const response = await axiosInstance.post('/users/add-balance', {
         id: userId,
         balance: balanceToAdd
       }, {
-        headers: { Authorization: `Bearer ${token}` }
+        headers: { Authorization: `Bearer ${token}`, 'Idempotency-Key': key }
       });
 
-      // Update the user data in the parent component
-      setUserData(response.data);
-    } catch (error) {
+      // The endpoint only returns the new balance
+      setUserData(prev => prev ? { ...prev, balance: response.data.balance } : prev);
+      setIdempotencyKey(null);
+      setError('');
+    } catch (error: any) {
+      if (error.response?.status === 422) {
+        setIdempotencyKey(null);
+      }
       setError('Failed to add balance. Please try again.');
     }
   };
@@ -87,7 +97,11 @@ export default function AddBalance({ setUserData }: AddBalanceProps) {
             <input
               type="number"
               value={amount}
-              onChange={(e) => setAmount(e.target.value)}
+              onChange={(e) => {
+                // A different amount is a new submission, not a retry
+                setAmount(e.target.value);
+                setIdempotencyKey(null);
+              }}
               placeholder="Enter amount"
               style={{
                 padding: '0.8rem 1rem',
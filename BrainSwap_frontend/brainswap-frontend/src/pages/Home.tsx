@@ -33,11 +33,12 @@ export default function Home({ activeTab }: { activeTab: 'TEACHING' | 'LEARN' })
       navigate('/login');
       return;
     }
-    // Fetch posts
+    // Fetch the first page of the feed for the active tab
     axiosInstance.get('/posts', {
-      headers: { Authorization: `Bearer ${token}` }
+      headers: { Authorization: `Bearer ${token}` },
+      params: { type: activeTab === 'TEACHING' ? 'TEACHING' : 'LEARN_TOGETHER' }
     })
-      .then(res => setPosts(res.data))
+      .then(res => setPosts(res.data.items))
       .catch(err => {
         if (err.response && (err.response.status === 401 || err.response.status === 403)) {
           localStorage.removeItem('token');
@@ -57,7 +58,7 @@ export default function Home({ activeTab }: { activeTab: 'TEACHING' | 'LEARN' })
           setSkills([]);
         }
       });
-  }, [navigate]);
+  }, [navigate, activeTab]);
 
   // Map skillId to skill name
   const getSkillName = (skillId: number) => {
@@ -129,12 +129,14 @@ export default function PostDetails() {
         headers: { Authorization: `Bearer ${token}` }
       });
 
-      // Update the post with the new call data
+      // The response is the call's summary, only the seat count and status change
       if (post) {
         setPost({
           ...post,
           calls: post.calls.map(call => 
-            call.id === callId ? response.data : call
+            call.id === callId
+              ? { ...call, currentParticipants: response.data.currentParticipants, status: response.data.status }
+              : call
           )
         });
       }